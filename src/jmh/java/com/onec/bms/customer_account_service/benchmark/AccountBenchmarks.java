@@ -0,0 +1,202 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onec.bms.customer_account_service.AccountTestData;
+import com.onec.bms.customer_account_service.CustomerAccountServiceApplication;
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.AccountLookupResult;
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import com.onec.bms.customer_account_service.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the AccountService and AccountRepository hot paths, run against
+ * the full Spring context and an in-memory H2 store seeded with generated accounts.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec@jmh}; results are written
+ * as JSON to {@code target/jmh-result.json} so they can be diffed across builds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class Store {
+
+        @Param("100000")
+        int rows;
+
+        ConfigurableApplicationContext context;
+        AccountService accountService;
+        AccountRepository accountRepository;
+        ObjectMapper objectMapper;
+        TransactionTemplate transaction;
+        Account sample;
+
+        @Setup(Level.Trial)
+        public void start() {
+            // Passed as arguments so they override application.properties
+            context = new SpringApplicationBuilder(CustomerAccountServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.main.banner-mode=off",
+                            "--spring.jpa.show-sql=false",
+                            "--logging.level.root=WARN");
+            accountService = context.getBean(AccountService.class);
+            accountRepository = context.getBean(AccountRepository.class);
+            objectMapper = context.getBean(ObjectMapper.class);
+            transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            AccountTestData.seed(context.getBean(JdbcTemplate.class), rows);
+            sample = accountRepository.findByAccountNumber(accountNumber(1)).orElseThrow();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Batch {
+
+        @Param({"50", "500"})
+        int size;
+    }
+
+    // Every call uses the next seeded account so neither H2 nor the account cache
+    // can serve the whole run from one cached result
+    private int next;
+
+    private int nextKey(Store store) {
+        next = next % store.rows + 1;
+        return next;
+    }
+
+    private static String accountNumber(int key) {
+        return "SEED-" + String.format("%08d", key);
+    }
+
+    @Benchmark
+    public Optional<Account> getAccountByNumber(Store store) {
+        return store.accountService.getAccountByNumber(accountNumber(nextKey(store)));
+    }
+
+    @Benchmark
+    public Optional<Account> findByAccountNumber(Store store) {
+        return store.accountRepository.findByAccountNumber(accountNumber(nextKey(store)));
+    }
+
+    /**
+     * Account numbers of the next batch of seeded accounts
+     */
+    private List<String> nextBatch(Store store, Batch batch) {
+        List<String> accountNumbers = new ArrayList<>(batch.size);
+        for (int i = 0; i < batch.size; i++) {
+            accountNumbers.add(accountNumber(nextKey(store)));
+        }
+        return accountNumbers;
+    }
+
+    @Benchmark
+    public AccountLookupResult lookupAccounts(Store store, Batch batch) {
+        return store.accountService.lookupAccounts(nextBatch(store, batch));
+    }
+
+    /**
+     * Baseline for lookupAccounts: one query per account number, as separate GETs cost on a cache miss
+     */
+    @Benchmark
+    public List<Optional<Account>> findByAccountNumberSequential(Store store, Batch batch) {
+        List<Optional<Account>> accounts = new ArrayList<>(batch.size);
+        for (String accountNumber : nextBatch(store, batch)) {
+            accounts.add(store.accountRepository.findByAccountNumber(accountNumber));
+        }
+        return accounts;
+    }
+
+    @Benchmark
+    public List<Account> getAccountsByCustomerId(Store store) {
+        return store.accountService.getAccountsByCustomerId("CUST-" + nextKey(store) / 3);
+    }
+
+    @Benchmark
+    public Account createAccount(Store store) {
+        return store.accountService.createAccount(new Account(null, "SAVINGS", "ACTIVE", "100.00", "USD",
+                null, null, "Benchmark account", "BRANCH-1", "CUST-BENCH", "Bench Mark",
+                null, null, null, null, null, null));
+    }
+
+    @Benchmark
+    public Optional<Account> updateAccount(Store store) {
+        int key = nextKey(store);
+        Account sample = store.sample;
+        return store.accountService.updateAccount(accountNumber(key), new Account(null, sample.getAccountType(),
+                key % 2 == 0 ? "ACTIVE" : "INACTIVE", sample.getAccountBalance(), sample.getAccountCurrency(),
+                null, null, "Updated " + key, sample.getAccountBranch(), "CUST-" + key / 3,
+                "Updated Customer " + key, null, null, null, null, null, null));
+    }
+
+    @Benchmark
+    public Optional<Account> updateAccountStatus(Store store) {
+        int key = nextKey(store);
+        return store.accountService.updateAccountStatus(accountNumber(key), key % 2 == 0 ? "ACTIVE" : "INACTIVE");
+    }
+
+    /**
+     * Baseline for updateAccountStatus: the load-then-save path it replaced
+     */
+    @Benchmark
+    public Account updateAccountStatusLoadAndSave(Store store) {
+        int key = nextKey(store);
+        return store.transaction.execute(status -> {
+            Account account = store.accountRepository.findByAccountNumber(accountNumber(key)).orElseThrow();
+            account.setAccountStatus(key % 2 == 0 ? "ACTIVE" : "INACTIVE");
+            return store.accountRepository.save(account);
+        });
+    }
+
+    @Benchmark
+    public Optional<Account> patchAccount(Store store) {
+        int key = nextKey(store);
+        return store.accountService.patchAccount(accountNumber(key), Map.of("accountDescription", "Patched " + key));
+    }
+
+    @Benchmark
+    public List<Account> findByAccountCustomerNameContainingIgnoreCase(Store store) {
+        // A five-digit fragment matches a handful of seeded names, so this measures the scan, not hydration
+        return store.accountRepository.findByAccountCustomerNameContainingIgnoreCase(
+                String.valueOf(10_000 + nextKey(store) % 90_000));
+    }
+
+    @Benchmark
+    public byte[] serializeAccount(Store store) throws Exception {
+        return store.objectMapper.writeValueAsBytes(store.sample);
+    }
+}
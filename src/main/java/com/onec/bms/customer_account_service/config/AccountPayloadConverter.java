@@ -0,0 +1,146 @@
+package com.onec.bms.customer_account_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.AccountVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes accounts, and lists of them, as JSON or CBOR from per-account payloads. Each account
+ * is encoded once per version and kept in the account-payloads cache, so an unchanged account is
+ * copied to the response without going through Jackson again. A list is written as the array of
+ * its elements' payloads. Cached payloads are tagged with the version and modification time they
+ * encode and re-encoded when the account written differs, so a payload that outlived an eviction
+ * is never sent.
+ */
+@Component
+public class AccountPayloadConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    /** Start and end of a CBOR array of indefinite length */
+    private static final int CBOR_ARRAY_START = 0x9f;
+    private static final int CBOR_BREAK = 0xff;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${accounts.payload-cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    private record Payloads(AccountVersion version, byte[] json, byte[] cbor) {
+    }
+
+    public AccountPayloadConverter() {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Account.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * Accounts, and lists declared as lists of accounts or of anything; other lists keep the Jackson converters
+     */
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (supports(clazz)) {
+            return true;
+        }
+        if (!List.class.isAssignableFrom(clazz) || type == null) {
+            return false;
+        }
+        Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+        return element == null || element == Object.class || supports(element);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Accounts are read by the Jackson converters", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Accounts are read by the Jackson converters", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        boolean cbor = MediaType.APPLICATION_CBOR.isCompatibleWith(outputMessage.getHeaders().getContentType());
+        OutputStream body = outputMessage.getBody();
+        if (!(value instanceof Collection<?> elements)) {
+            body.write(encode(value, cbor));
+            return;
+        }
+        body.write(cbor ? CBOR_ARRAY_START : '[');
+        boolean first = true;
+        for (Object element : elements) {
+            if (!cbor && !first) {
+                body.write(',');
+            }
+            body.write(encode(element, cbor));
+            first = false;
+        }
+        body.write(cbor ? CBOR_BREAK : ']');
+    }
+
+    /**
+     * The encoded element: from the cache for an account at the cached version, freshly encoded otherwise
+     */
+    private byte[] encode(Object value, boolean cbor) throws IOException {
+        ObjectMapper mapper = cbor ? cborConverter.getObjectMapper() : objectMapper;
+        Cache cache = cacheEnabled ? cacheManager.getCache(CacheConfig.ACCOUNT_PAYLOADS_CACHE) : null;
+        if (cache == null || !(value instanceof Account account) || account.getVersion() == null) {
+            return mapper.writeValueAsBytes(value);
+        }
+
+        AccountVersion version = AccountVersion.of(account);
+        Payloads cached = cache.get(account.getAccountNumber(), Payloads.class);
+        if (cached == null || !cached.version().equals(version)) {
+            cached = new Payloads(version, null, null);
+        }
+        byte[] payload = cbor ? cached.cbor() : cached.json();
+        if (payload == null) {
+            payload = mapper.writeValueAsBytes(account);
+            cache.put(account.getAccountNumber(), cbor
+                    ? new Payloads(version, cached.json(), payload)
+                    : new Payloads(version, payload, cached.cbor()));
+        }
+        return payload;
+    }
+}
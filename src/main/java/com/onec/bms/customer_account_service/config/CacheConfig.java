@@ -0,0 +1,44 @@
+package com.onec.bms.customer_account_service.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    /** Single-account lookups by account number, including misses */
+    public static final String ACCOUNTS_CACHE = "accounts";
+
+    /** Encoded JSON and CBOR responses of single accounts, by account number */
+    public static final String ACCOUNT_PAYLOADS_CACHE = "account-payloads";
+
+    /**
+     * The Caffeine cache manager Spring Boot would configure from the spring.cache properties,
+     * except that the account cache refuses accounts loaded before their last eviction
+     */
+    @Bean
+    public CaffeineCacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return ACCOUNTS_CACHE.equals(name) ? new FencedCaffeineCache(name, cache, isAllowNullValues())
+                        : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        String specification = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(specification)) {
+            cacheManager.setCacheSpecification(specification);
+        }
+        // Last, as setting the names creates the caches
+        cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return cacheManager;
+    }
+}
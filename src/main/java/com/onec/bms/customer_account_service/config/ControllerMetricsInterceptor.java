@@ -0,0 +1,65 @@
+package com.onec.bms.customer_account_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Times every controller method as {@code accounts.http.requests}, tagged with the
+ * handler method (endpoint), the HTTP method and the outcome.
+ * Streaming responses are timed until the last byte has been written.
+ */
+public class ControllerMetricsInterceptor implements HandlerInterceptor {
+
+    public static final String METRIC = "accounts.http.requests";
+
+    private static final String START = ControllerMetricsInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry registry;
+
+    public ControllerMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async dispatches of the same request pass through here again; keep the original start
+        if (handler instanceof HandlerMethod && request.getAttribute(START) == null) {
+            request.setAttribute(START, Timer.start(registry));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !(request.getAttribute(START) instanceof Timer.Sample sample)) {
+            return;
+        }
+        request.removeAttribute(START);
+        sample.stop(Timer.builder(METRIC)
+                .description("Latency of CustomerAccountController methods")
+                .tag("endpoint", handlerMethod.getMethod().getName())
+                .tag("method", request.getMethod())
+                .tag("outcome", outcome(response.getStatus(), ex))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private static String outcome(int status, Exception ex) {
+        if (ex != null || status >= 500) {
+            return "error";
+        }
+        if (status == 404) {
+            return "not_found";
+        }
+        if (status >= 400) {
+            return "client_error";
+        }
+        return "ok";
+    }
+}
@@ -3,9 +3,11 @@ package com.onec.bms.customer_account_service.config;
 import com.onec.bms.customer_account_service.service.AccountService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 @Component
+@Profile("!prod")
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
@@ -0,0 +1,114 @@
+package com.onec.bms.customer_account_service.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caffeine-backed cache that refuses a value loaded before the last eviction of its key.
+ * Evicting after a change commits is not enough on its own: a reader that loaded the old row
+ * before the commit would put it back afterwards, to be served until it expires. Loads made
+ * through {@link #get(Object, Callable)}, as {@code @Cacheable(sync = true)} does, note the
+ * eviction clock before loading and store the value only if the key has not been evicted, or
+ * the cache cleared, since. Plain {@link #put} is not fenced.
+ * <p>
+ * As {@code sync = true} requires, concurrent loads of one key run once: the loader runs under
+ * a lock of its key, and callers that waited for it find the value in the cache. Evictions do not
+ * take that lock, so a loader may evict its own key; they are ordered by the fence instead.
+ */
+public class FencedCaffeineCache extends CaffeineCache {
+
+    /** How long an eviction is remembered; longer than any load may take */
+    static final Duration FENCE = Duration.ofMinutes(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<Object, Long> evictedAt = Caffeine.newBuilder().expireAfterWrite(FENCE).build();
+    private volatile long clearedAt;
+    /** Locks of the keys being loaded, removed once nobody holds or waits for them */
+    private final ConcurrentHashMap<Object, KeyLock> loading = new ConcurrentHashMap<>();
+
+    private static final class KeyLock extends ReentrantLock {
+        /** Callers holding or waiting for the lock, only changed while computing its map entry */
+        int users;
+    }
+
+    public FencedCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        KeyLock keyLock = loading.compute(key, (k, held) -> {
+            KeyLock lock = held == null ? new KeyLock() : held;
+            lock.users++;
+            return lock;
+        });
+        keyLock.lock();
+        try {
+            // Loaded by the caller that held the lock before
+            cached = get(key);
+            if (cached != null) {
+                return (T) cached.get();
+            }
+            long loadedAfter = clock.get();
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            // Evictions of the key lock its fence entry too, so none can slip in between check and put
+            evictedAt.asMap().compute(key, (k, evicted) -> {
+                if ((evicted == null || evicted <= loadedAfter) && clearedAt <= loadedAfter) {
+                    put(k, value);
+                }
+                return evicted;
+            });
+            return value;
+        } finally {
+            keyLock.unlock();
+            loading.computeIfPresent(key, (k, lock) -> --lock.users == 0 ? null : lock);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictedAt.asMap().compute(key, (k, evicted) -> {
+            super.evict(k);
+            return clock.incrementAndGet();
+        });
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean[] present = new boolean[1];
+        evictedAt.asMap().compute(key, (k, evicted) -> {
+            present[0] = super.evictIfPresent(k);
+            return clock.incrementAndGet();
+        });
+        return present[0];
+    }
+
+    @Override
+    public void clear() {
+        clearedAt = clock.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clearedAt = clock.incrementAndGet();
+        return super.invalidate();
+    }
+}
@@ -0,0 +1,24 @@
+package com.onec.bms.customer_account_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+/**
+ * CBOR as an alternative to JSON for clients that send {@code Accept: application/cbor}.
+ * Accounts themselves are written by {@link AccountPayloadConverter}.
+ */
+@Configuration
+public class PayloadEncodingConfig {
+
+    /**
+     * Replaces the default CBOR converter, whose mapper ignores the application's Jackson settings,
+     * with one that shares the modules and settings of the JSON mapper
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.onec.bms.customer_account_service.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Times every method of one repository as {@code accounts.repository.queries}, tagged with the
+ * repository interface, the query (method) name and the outcome, and records the number of rows
+ * each finder call returned as {@code accounts.repository.rows}.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    public static final String QUERY_METRIC = "accounts.repository.queries";
+    public static final String ROWS_METRIC = "accounts.repository.rows";
+
+    private final Supplier<MeterRegistry> registry;
+    private final String repository;
+
+    /**
+     * @param registry registry to record into, resolved on the first call
+     * @param repository simple name of the repository interface, e.g. AccountRepository
+     */
+    public RepositoryMetricsInterceptor(Supplier<MeterRegistry> registry, String repository) {
+        this.registry = registry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry meterRegistry = registry.get();
+        String query = invocation.getMethod().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = invocation.proceed();
+            outcome = "success";
+            recordRows(meterRegistry, query, result);
+            return result;
+        } finally {
+            sample.stop(Timer.builder(QUERY_METRIC)
+                    .description("Latency of repository methods")
+                    .tag("repository", repository)
+                    .tag("query", query)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Record how many rows a finder returned; results that are not rows (counts, flags, streams) are skipped
+     */
+    private void recordRows(MeterRegistry meterRegistry, String query, Object result) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Optional<?> optional) {
+            rows = optional.isPresent() ? 1 : 0;
+        } else if (result instanceof Slice<?> slice) {
+            rows = slice.getNumberOfElements();
+        } else {
+            return;
+        }
+        DistributionSummary.builder(ROWS_METRIC)
+                .description("Rows returned per repository finder call")
+                .baseUnit("rows")
+                .tag("repository", repository)
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
@@ -0,0 +1,170 @@
+package com.onec.bms.customer_account_service.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements, entity loads, flushes and JDBC time recorded on the current thread
+ * between {@link #begin()} and {@link #end()}. Scopes nest: when an inner scope ends,
+ * its counts are added to the enclosing one.
+ * Work handed off to other threads, such as a streamed export, is not recorded.
+ */
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    /** Statements kept verbatim for diagnostics; later ones are only counted */
+    private static final int MAX_SQL = 100;
+
+    private static final Pattern DATA_CHANGE_DELTA_TABLE =
+            Pattern.compile("(?i)\\b(?:old|new|final)\\s+table\\s*\\(\\s*(update|insert|delete|merge)\\b");
+
+    private final RequestStatistics parent;
+    private int statements;
+    private int selects;
+    private int inserts;
+    private int updates;
+    private int deletes;
+    private int entityLoads;
+    private int flushes;
+    private long jdbcNanos;
+    private final List<String> sql = new ArrayList<>();
+
+    private RequestStatistics(RequestStatistics parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Start recording on the current thread
+     * @return the new scope, to be ended in a finally block
+     */
+    public static RequestStatistics begin() {
+        RequestStatistics statistics = new RequestStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stop recording and hand the counts to the enclosing scope, if any
+     */
+    public void end() {
+        if (parent == null) {
+            CURRENT.remove();
+            return;
+        }
+        CURRENT.set(parent);
+        parent.statements += statements;
+        parent.selects += selects;
+        parent.inserts += inserts;
+        parent.updates += updates;
+        parent.deletes += deletes;
+        parent.entityLoads += entityLoads;
+        parent.flushes += flushes;
+        parent.jdbcNanos += jdbcNanos;
+        for (String statement : sql) {
+            parent.addSql(statement);
+        }
+    }
+
+    static void recordStatement(String statement) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics == null) {
+            return;
+        }
+        statistics.statements++;
+        String verb = statement.stripLeading();
+        verb = verb.substring(0, Math.min(6, verb.length())).toLowerCase(Locale.ROOT);
+        if (verb.equals("select")) {
+            // A select from an H2 data change delta table is really the update, insert or delete inside it
+            Matcher delta = DATA_CHANGE_DELTA_TABLE.matcher(statement);
+            if (delta.find()) {
+                verb = delta.group(1).toLowerCase(Locale.ROOT);
+            }
+        }
+        switch (verb) {
+            case "select", "with r" -> statistics.selects++;
+            case "insert" -> statistics.inserts++;
+            case "update", "merge" -> statistics.updates++;
+            case "delete" -> statistics.deletes++;
+            default -> { }
+        }
+        statistics.addSql(statement);
+    }
+
+    static void recordEntityLoad() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    static void recordFlush() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.flushes++;
+        }
+    }
+
+    static void recordJdbcTime(long nanos) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.jdbcNanos += nanos;
+        }
+    }
+
+    private void addSql(String statement) {
+        if (sql.size() < MAX_SQL) {
+            sql.add(statement);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getSelects() {
+        return selects;
+    }
+
+    public int getInserts() {
+        return inserts;
+    }
+
+    public int getUpdates() {
+        return updates;
+    }
+
+    public int getDeletes() {
+        return deletes;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getFlushes() {
+        return flushes;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * The statements run so far, up to the first hundred
+     */
+    public List<String> getSql() {
+        return Collections.unmodifiableList(sql);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "statements=%d;selects=%d;inserts=%d;updates=%d;deletes=%d;entityLoads=%d;flushes=%d;jdbcMs=%.3f",
+                statements, selects, inserts, updates, deletes, entityLoads, flushes, jdbcNanos / 1e6);
+    }
+}
@@ -0,0 +1,99 @@
+package com.onec.bms.customer_account_service.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Records {@link RequestStatistics} for every API request, adds them to the per-route
+ * totals and, when enabled, reports them in the {@value #HEADER} response header.
+ * The header is set just before the body is written, so statements run while
+ * serializing the response are not included in it.
+ */
+@Component
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Statement-Statistics";
+
+    @Autowired
+    private RouteStatementStatistics routeStatementStatistics;
+
+    @Value("${accounts.statistics.response-header:false}")
+    private boolean responseHeader;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.begin();
+        try {
+            if (responseHeader) {
+                HttpServletResponse headerResponse = new StatisticsHeaderResponse(response, statistics);
+                chain.doFilter(request, headerResponse);
+                if (!response.isCommitted()) {
+                    response.setHeader(HEADER, statistics.toString());
+                }
+            } else {
+                chain.doFilter(request, response);
+            }
+        } finally {
+            statistics.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                routeStatementStatistics.record(request.getMethod() + " " + pattern, statistics);
+            }
+        }
+    }
+
+    /**
+     * Sets the statistics header when the handler starts writing the body
+     */
+    private static final class StatisticsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final RequestStatistics statistics;
+
+        StatisticsHeaderResponse(HttpServletResponse response, RequestStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            setStatisticsHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            setStatisticsHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            setStatisticsHeader();
+            super.flushBuffer();
+        }
+
+        private void setStatisticsHeader() {
+            if (!isCommitted()) {
+                setHeader(HEADER, statistics.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.onec.bms.customer_account_service.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Feeds JDBC execution time and flushes of every Hibernate session into the
+ * {@link RequestStatistics} of the calling thread. Hibernate creates one instance per session.
+ */
+public class RequestStatisticsSessionListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatistics.recordJdbcTime(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestStatistics.recordJdbcTime(System.nanoTime() - batchStart);
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        RequestStatistics.recordFlush();
+    }
+}
@@ -0,0 +1,88 @@
+package com.onec.bms.customer_account_service.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-route totals of {@link RequestStatistics}, served at {@code /actuator/statements}.
+ * A DELETE on the endpoint starts the totals over.
+ */
+@Component
+@Endpoint(id = "statements")
+public class RouteStatementStatistics {
+
+    private final Map<String, RouteTotals> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Add one request to the totals of its route
+     * @param route HTTP method and path pattern, e.g. "PUT /api/v1/accounts/{accountNumber}"
+     * @param statistics what the request ran
+     */
+    public void record(String route, RequestStatistics statistics) {
+        routes.computeIfAbsent(route, r -> new RouteTotals()).add(statistics);
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> statements() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        routes.forEach((route, totals) -> result.put(route, totals.toMap()));
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        routes.clear();
+    }
+
+    private static final class RouteTotals {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder selects = new LongAdder();
+        private final LongAdder inserts = new LongAdder();
+        private final LongAdder updates = new LongAdder();
+        private final LongAdder deletes = new LongAdder();
+        private final LongAdder entityLoads = new LongAdder();
+        private final LongAdder flushes = new LongAdder();
+        private final LongAdder jdbcNanos = new LongAdder();
+
+        void add(RequestStatistics statistics) {
+            requests.increment();
+            statements.add(statistics.getStatements());
+            maxStatements.accumulate(statistics.getStatements());
+            selects.add(statistics.getSelects());
+            inserts.add(statistics.getInserts());
+            updates.add(statistics.getUpdates());
+            deletes.add(statistics.getDeletes());
+            entityLoads.add(statistics.getEntityLoads());
+            flushes.add(statistics.getFlushes());
+            jdbcNanos.add(statistics.getJdbcNanos());
+        }
+
+        Map<String, Object> toMap() {
+            long count = requests.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests", count);
+            map.put("statements", statements.sum());
+            map.put("statementsPerRequest", count == 0 ? 0.0 : (double) statements.sum() / count);
+            map.put("maxStatements", maxStatements.get());
+            map.put("selects", selects.sum());
+            map.put("inserts", inserts.sum());
+            map.put("updates", updates.sum());
+            map.put("deletes", deletes.sum());
+            map.put("entityLoads", entityLoads.sum());
+            map.put("flushes", flushes.sum());
+            map.put("jdbcMillis", jdbcNanos.sum() / 1e6);
+            return map;
+        }
+    }
+}
@@ -1,95 +1,395 @@
 package com.onec.bms.customer_account_service.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.AccountChangeFeed;
+import com.onec.bms.customer_account_service.model.AccountLookupResult;
+import com.onec.bms.customer_account_service.model.AccountPage;
+import com.onec.bms.customer_account_service.model.AccountVersion;
+import com.onec.bms.customer_account_service.model.BalanceAggregate;
+import com.onec.bms.customer_account_service.model.BalanceDeltaFailure;
+import com.onec.bms.customer_account_service.model.BulkCreateResult;
+import com.onec.bms.customer_account_service.model.BulkStatusChange;
+import com.onec.bms.customer_account_service.model.BulkStatusResult;
+import com.onec.bms.customer_account_service.model.ProjectedAccounts;
 import com.onec.bms.customer_account_service.service.AccountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/accounts")
 @Tag(name = "Customer Account Management", description = "CRUD operations for customer accounts")
 public class CustomerAccountController {
 
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    /** Ends the ETags of CBOR responses */
+    private static final String CBOR_ETAG_SUFFIX = "cbor";
+
+    private static final String FIELDS_DESCRIPTION =
+            "Comma-separated account fields to return, e.g. the ones most callers need; all fields if omitted";
+    private static final String FIELDS_EXAMPLE = "accountNumber,accountStatus,accountBalance,accountCurrency";
+
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
     // Initialize with sample data
     public CustomerAccountController() {
         // Sample data will be initialized in the service
     }
 
+    /**
+     * Every response body may be JSON or CBOR, chosen by the Accept header, so caches must key on it
+     */
+    @ModelAttribute
+    public void varyByAccept(HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
     @GetMapping
-    @Operation(summary = "Get all accounts", description = "Retrieve a list of all customer accounts")
+    @Operation(summary = "Get all accounts",
+            description = "Retrieve a list of all customer accounts. Pass fields to read and return only those " +
+                    "fields of each account.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved all accounts",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Account.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown field"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<?>> getAllAccounts(
+            @Parameter(description = FIELDS_DESCRIPTION, example = FIELDS_EXAMPLE)
+            @RequestParam(required = false) List<String> fields) {
+
+        if (fields == null || fields.isEmpty()) {
+            return ResponseEntity.ok(accountService.getAllAccounts());
+        }
+        try {
+            return ResponseEntity.ok(accountService.getAllAccounts(fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of accounts",
+            description = "Retrieve accounts ordered by account number, one page at a time. " +
+                    "Pass the returned nextCursor to fetch the following page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the page",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccountPage.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<AccountPage> getAccountPage(
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server)", example = "50")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Filter by account type", example = "SAVINGS")
+            @RequestParam(required = false) String type,
+            @Parameter(description = "Filter by account status", example = "ACTIVE")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Filter by branch", example = "MAIN_BRANCH")
+            @RequestParam(required = false) String branch) {
+
+        try {
+            return ResponseEntity.ok(accountService.getAccountPage(cursor, limit, type, status, branch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all accounts",
+            description = "Stream every account as newline-delimited JSON, ordered by account number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export stream started",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = Account.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<StreamingResponseBody> exportAccounts() {
+        StreamingResponseBody body = accountService::exportAccounts;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Follow account changes",
+            description = "Long poll the account change log: the changes committed after a sequence number, " +
+                    "oldest first. With none yet, the request waits up to waitMs for the next commit and then " +
+                    "returns an empty list. Resume from nextSequence. Superseded changes of an account are " +
+                    "compacted away over time, so a reader far behind sees the latest change of each account.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes after the sequence number, possibly none",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccountChangeFeed.class))),
+            @ApiResponse(responseCode = "400", description = "Negative sequence number or wait, or zero limit"),
+            @ApiResponse(responseCode = "410", description = "Changes after the sequence number are no longer in " +
+                    "the log; reload the accounts and resume from the returned nextSequence",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccountChangeFeed.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public CompletableFuture<ResponseEntity<AccountChangeFeed>> getChanges(
+            @Parameter(description = "Last sequence number seen, 0 to start at the beginning", example = "0")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Most changes to return (capped by the server)", example = "100")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Most milliseconds to wait for a change (capped by the server)", example = "30000")
+            @RequestParam(required = false) Long waitMs) {
+
+        try {
+            return accountService.getChanges(after, limit, waitMs).thenApply(feed -> feed
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE)
+                            .body(new AccountChangeFeed(List.of(), accountService.getLastChangeSequence()))));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+    }
+
+    @GetMapping("/balance-deltas/failed")
+    @Operation(summary = "Get failed balance deltas",
+            description = "Credits and debits that were accepted with 202 in coalescing mode but could not be " +
+                    "applied, because the account was deleted or the update kept failing. They are kept " +
+                    "here for reconciliation, newest first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the failed deltas",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BalanceDeltaFailure.class)))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<BalanceDeltaFailure>> getFailedBalanceDeltas(
+            @Parameter(description = "Maximum number of failures (capped by the server)", example = "50")
+            @RequestParam(required = false) Integer limit) {
+
+        return ResponseEntity.ok(accountService.getFailedBalanceDeltas(limit));
+    }
+
+    @GetMapping("/branch/{branch}/balance")
+    @Operation(summary = "Get accounts by balance range",
+            description = "Retrieve the accounts of a branch whose balance lies within the given bounds, " +
+                    "largest balance first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved matching accounts",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Account.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid balance bound"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<Account>> getAllAccounts() {
-        List<Account> accounts = accountService.getAllAccounts();
-        return ResponseEntity.ok(accounts);
+    public ResponseEntity<List<Account>> getAccountsByBalanceRange(
+            @Parameter(description = "Branch", required = true, example = "MAIN_BRANCH")
+            @PathVariable String branch,
+            @Parameter(description = "Minimum balance (inclusive)", example = "1000.00")
+            @RequestParam(required = false) String min,
+            @Parameter(description = "Maximum balance (inclusive)", example = "10000.00")
+            @RequestParam(required = false) String max,
+            @Parameter(description = "Maximum number of accounts (capped by the server)", example = "50")
+            @RequestParam(required = false) Integer limit) {
+
+        try {
+            return ResponseEntity.ok(accountService.getAccountsByBalanceRange(branch, min, max, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/aggregates")
+    @Operation(summary = "Get balance aggregates",
+            description = "Account counts and balance totals grouped by branch, currency, type and status. " +
+                    "Totals are maintained as accounts change, so the table is not scanned. " +
+                    "Balances are always grouped by currency.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the aggregates",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BalanceAggregate.class)))),
+            @ApiResponse(responseCode = "400", description = "Unknown grouping dimension"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<BalanceAggregate>> getBalanceAggregates(
+            @Parameter(description = "Dimensions to group by: branch, currency, type, status (default all)",
+                    example = "branch,currency")
+            @RequestParam(required = false) List<String> groupBy) {
+
+        try {
+            return ResponseEntity.ok(accountService.getBalanceAggregates(groupBy));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search accounts by customer name",
+            description = "Find accounts whose customer name contains the given text, ignoring case and accents. " +
+                    "Names starting with the text rank first; texts shorter than three characters only match " +
+                    "the start of the name.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved matching accounts",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Account.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<Account>> searchAccountsByCustomerName(
+            @Parameter(description = "Text to look for in the customer name", required = true, example = "garcia")
+            @RequestParam String name,
+            @Parameter(description = "Maximum number of accounts (capped by the server)", example = "50")
+            @RequestParam(required = false) Integer limit) {
+
+        return ResponseEntity.ok(accountService.searchAccountsByCustomerName(name, limit));
     }
 
     @GetMapping("/{accountNumber}")
-    @Operation(summary = "Get account by account number", description = "Retrieve a specific customer account by its account number")
+    @Operation(summary = "Get account by account number",
+            description = "Retrieve a specific customer account by its account number. The response carries an " +
+                    "ETag and Last-Modified; send them back in If-None-Match or If-Modified-Since to get 304 " +
+                    "while the account is unchanged. JSON and CBOR responses carry different ETags.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Account found successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Account.class))),
+            @ApiResponse(responseCode = "304", description = "Account unchanged since the given ETag or date"),
             @ApiResponse(responseCode = "404", description = "Account not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<Account> getAccountByNumber(
             @Parameter(description = "Account number", required = true, example = "ACC-000001")
-            @PathVariable String accountNumber) {
-        
+            @PathVariable String accountNumber,
+            @Parameter(in = ParameterIn.HEADER, description = "ETag of the copy the client holds")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(in = ParameterIn.HEADER, description = "Last-Modified of the copy the client holds")
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
+
+        // Validate the client's copy against the version alone before loading the account
+        if (ifNoneMatch != null || ifModifiedSince != null) {
+            Optional<AccountVersion> version = accountService.getAccountVersion(accountNumber);
+            if (version.isPresent()
+                    && isNotModified(ifNoneMatch, ifModifiedSince, eTag(version.get()), version.get().lastModified())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag(version.get()).formattedTag())
+                        .lastModified(version.get().lastModified())
+                        .build();
+            }
+        }
+
         Optional<Account> account = accountService.getAccountByNumber(accountNumber);
         
         if (account.isPresent()) {
-            return ResponseEntity.ok(account.get());
+            return ok(account.get());
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/customer/{customerId}")
-    @Operation(summary = "Get accounts by customer ID", description = "Retrieve all accounts for a specific customer")
+    @Operation(summary = "Get accounts by customer ID",
+            description = "Retrieve all accounts for a specific customer. Pass fields to read and return only " +
+                    "those fields of each account. The response carries a weak ETag; send it back in " +
+                    "If-None-Match to get 304 while none of the accounts was changed, added or removed.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Customer accounts found successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Account.class))),
+            @ApiResponse(responseCode = "304", description = "Customer accounts unchanged since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Unknown field"),
             @ApiResponse(responseCode = "404", description = "No accounts found for customer"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<Account>> getAccountsByCustomerId(
+    public ResponseEntity<List<?>> getAccountsByCustomerId(
             @Parameter(description = "Customer ID", required = true, example = "CUST-001")
-            @PathVariable String customerId) {
-        
-        List<Account> customerAccounts = accountService.getAccountsByCustomerId(customerId);
-        
-        if (customerAccounts.isEmpty()) {
-            return ResponseEntity.notFound().build();
+            @PathVariable String customerId,
+            @Parameter(description = FIELDS_DESCRIPTION, example = FIELDS_EXAMPLE)
+            @RequestParam(required = false) List<String> fields,
+            @Parameter(in = ParameterIn.HEADER, description = "ETag of the list the client holds")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        try {
+            // No Last-Modified here: the newest modification time cannot tell that an account left the list
+            if (ifNoneMatch != null) {
+                Optional<String> fingerprint = accountService.getCustomerAccountsFingerprint(customerId, fields);
+                if (fingerprint.isPresent()
+                        && isNotModified(ifNoneMatch, null, listETag(fingerprint.get()), null)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .eTag(listETag(fingerprint.get()).formattedTag())
+                            .build();
+                }
+            }
+
+            List<?> customerAccounts;
+            String fingerprint;
+            if (fields == null || fields.isEmpty()) {
+                List<Account> accounts = accountService.getAccountsByCustomerId(customerId);
+                customerAccounts = accounts;
+                fingerprint = accountService.fingerprint(accounts);
+            } else {
+                ProjectedAccounts projected = accountService.getAccountsByCustomerId(customerId, fields);
+                customerAccounts = projected.accounts();
+                fingerprint = projected.fingerprint();
+            }
+
+            if (customerAccounts.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(listETag(fingerprint).formattedTag())
+                    .body(customerAccounts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        return ResponseEntity.ok(customerAccounts);
     }
 
     @PostMapping
-    @Operation(summary = "Create new account", description = "Create a new customer account")
+    @Operation(summary = "Create new account", description = "Create a new customer account. Balances are " +
+            "held with two fraction digits, so the currency must be one that has two, such as USD or EUR; " +
+            "JPY or BHD are refused.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Account created successfully",
                     content = @Content(mediaType = "application/json",
@@ -101,30 +401,162 @@ public class CustomerAccountController {
             @Parameter(description = "Account details", required = true)
             @RequestBody Account account) {
         
-        Account createdAccount = accountService.createAccount(account);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdAccount);
+        try {
+            Account createdAccount = accountService.createAccount(account);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdAccount);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Create accounts in bulk",
+            description = "Create many accounts from a JSON array or newline-delimited JSON. " +
+                    "Each account gets the same defaults as a single create; the response reports " +
+                    "the outcome of every account in request order.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Accounts to create", required = true,
+            content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = Account.class))),
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = Account.class))
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bulk request processed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkCreateResult.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BulkCreateResult> createAccounts(InputStream body) throws IOException {
+        try (MappingIterator<Account> accounts = objectMapper.readerFor(Account.class).readValues(body)) {
+            return ResponseEntity.ok(accountService.createAccounts(accounts));
+        }
+    }
+
+    @PostMapping("/bulk/status")
+    @Operation(summary = "Change the status of accounts in bulk",
+            description = "Move every account of a branch, of a customer, or in a list to a status, with one " +
+                    "UPDATE per chunk of accounts. Accounts already in the status are left alone; closing " +
+                    "accounts (CLOSED) also sets today as their closing date where none is set.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status change applied",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkStatusResult.class))),
+            @ApiResponse(responseCode = "400", description = "Missing status, or not exactly one selection"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BulkStatusResult> changeStatus(
+            @Parameter(description = "New status and the accounts to change", required = true)
+            @RequestBody BulkStatusChange change) {
+
+        try {
+            return ResponseEntity.ok(accountService.changeStatus(change));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "Look up accounts in bulk",
+            description = "Resolve many account numbers in one request. Every account number gets an outcome, " +
+                    "in request order, and the ones that do not exist are also listed under missing.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Account numbers to resolve", required = true,
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    examples = @ExampleObject(value = "[\"ACC-000001\", \"ACC-000002\", \"ACC-999999\"]")))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup processed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccountLookupResult.class))),
+            @ApiResponse(responseCode = "400", description = "Empty account number or too many account numbers"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<AccountLookupResult> lookupAccounts(@RequestBody List<String> accountNumbers) {
+        try {
+            return ResponseEntity.ok(accountService.lookupAccounts(accountNumbers));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PutMapping("/{accountNumber}")
-    @Operation(summary = "Update account", description = "Update an existing customer account")
+    @Operation(summary = "Update account",
+            description = "Update an existing customer account. Send its ETag in If-Match to update only if the " +
+                    "account has not changed since.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Account updated successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Account.class))),
             @ApiResponse(responseCode = "404", description = "Account not found"),
             @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "412", description = "Account no longer matches If-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<Account> updateAccount(
             @Parameter(description = "Account number", required = true, example = "ACC-000001")
             @PathVariable String accountNumber,
+            @Parameter(in = ParameterIn.HEADER, description = "ETag the account must still have, or *")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Updated account details", required = true)
             @RequestBody Account updatedAccount) {
         
-        Optional<Account> account = accountService.updateAccount(accountNumber, updatedAccount);
+        Optional<Account> account;
+        try {
+            account = accountService.updateAccount(accountNumber, updatedAccount, requiredVersion(ifMatch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailedOr(ifMatch, e);
+        }
         
         if (account.isPresent()) {
-            return ResponseEntity.ok(account.get());
+            return ok(account.get());
+        } else if (ifMatch != null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping(value = "/{accountNumber}", consumes = MERGE_PATCH_JSON_VALUE)
+    @Operation(summary = "Patch account",
+            description = "Apply a JSON Merge Patch: only the fields present are changed and a field set to null " +
+                    "is cleared. Include version, or send the ETag in If-Match, to update only if the account " +
+                    "has not changed since.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Fields to change", required = true,
+            content = @Content(mediaType = MERGE_PATCH_JSON_VALUE,
+                    examples = @ExampleObject(value = "{\"accountStatus\":\"SUSPENDED\",\"accountDescription\":null}")))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Account patched successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Account.class))),
+            @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "400", description = "Unknown, read-only or invalid field"),
+            @ApiResponse(responseCode = "409", description = "Account is no longer at the given version"),
+            @ApiResponse(responseCode = "412", description = "Account no longer matches If-Match"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Account> patchAccount(
+            @Parameter(description = "Account number", required = true, example = "ACC-000001")
+            @PathVariable String accountNumber,
+            @Parameter(in = ParameterIn.HEADER, description = "ETag the account must still have, or *")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> patch) {
+
+        Optional<Account> account;
+        try {
+            account = accountService.patchAccount(accountNumber, patch, requiredVersion(ifMatch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailedOr(ifMatch, e);
+        }
+
+        if (account.isPresent()) {
+            return ok(account.get());
+        } else if (ifMatch != null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -169,7 +601,7 @@ public class CustomerAccountController {
         Optional<Account> account = accountService.updateAccountStatus(accountNumber, status);
         
         if (account.isPresent()) {
-            return ResponseEntity.ok(account.get());
+            return ok(account.get());
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -191,10 +623,209 @@ public class CustomerAccountController {
             @Parameter(description = "New account balance", required = true, example = "7500.00")
             @RequestBody String balance) {
         
-        Optional<Account> account = accountService.updateAccountBalance(accountNumber, balance);
+        Optional<Account> account;
+        try {
+            account = accountService.updateAccountBalance(accountNumber, balance);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         
         if (account.isPresent()) {
-            return ResponseEntity.ok(account.get());
+            return ok(account.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{accountNumber}/credit")
+    @Operation(summary = "Credit account",
+            description = "Add an amount to the balance of an account. In coalescing mode the credit is " +
+                    "queued and applied with the next batched update, and 202 is returned. A queued " +
+                    "amount that cannot be applied is listed under /balance-deltas/failed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Account credited successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Account.class))),
+            @ApiResponse(responseCode = "202", description = "Credit queued for the next coalesced update"),
+            @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid amount"),
+            @ApiResponse(responseCode = "409", description = "Account was modified concurrently"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Account> creditAccount(
+            @Parameter(description = "Account number", required = true, example = "ACC-000001")
+            @PathVariable String accountNumber,
+            @Parameter(description = "Amount to credit", required = true, example = "250.00")
+            @RequestBody String amount) {
+
+        return applyBalanceDelta(accountNumber, amount, false);
+    }
+
+    @PostMapping("/{accountNumber}/debit")
+    @Operation(summary = "Debit account",
+            description = "Subtract an amount from the balance of an account. In coalescing mode the debit is " +
+                    "queued and applied with the next batched update, and 202 is returned. A queued " +
+                    "amount that cannot be applied is listed under /balance-deltas/failed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Account debited successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Account.class))),
+            @ApiResponse(responseCode = "202", description = "Debit queued for the next coalesced update"),
+            @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid amount"),
+            @ApiResponse(responseCode = "409", description = "Account was modified concurrently"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Account> debitAccount(
+            @Parameter(description = "Account number", required = true, example = "ACC-000001")
+            @PathVariable String accountNumber,
+            @Parameter(description = "Amount to debit", required = true, example = "100.00")
+            @RequestBody String amount) {
+
+        return applyBalanceDelta(accountNumber, amount, true);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConcurrentUpdate(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Account was modified concurrently, please retry");
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<String> handleConnectionPoolExhausted(RuntimeException e) {
+        // The JDBC pool is the concurrency limit; tell clients to back off instead of queueing further
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Service is busy, please retry");
+    }
+
+    /**
+     * 200 with the account and its validators, so the client can make its next request conditional
+     */
+    private ResponseEntity<Account> ok(Account account) {
+        return ResponseEntity.ok()
+                .eTag(eTag(AccountVersion.of(account)).formattedTag())
+                .lastModified(account.getLastModified())
+                .body(account);
+    }
+
+    /**
+     * Strong ETag of one state of an account in the encoding the response is written in. The
+     * modification time keeps an account that is deleted and created again from reusing the ETags
+     * of the old one.
+     */
+    private ETag eTag(AccountVersion version) {
+        return new ETag(version.version() + "-" + version.lastModified().toEpochMilli() + encodingSuffix(), false);
+    }
+
+    /**
+     * Weak ETag of a list of accounts in the encoding the response is written in
+     */
+    private ETag listETag(String fingerprint) {
+        return new ETag(fingerprint + encodingSuffix(), true);
+    }
+
+    /**
+     * Tells the CBOR representation apart from the JSON one. Mirrors content negotiation: the first
+     * accepted type, by quality and then specificity, that JSON or CBOR satisfies wins, JSON on a tie.
+     */
+    private String encodingSuffix() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        try {
+            for (MediaType accepted : contentNegotiationManager.resolveMediaTypes(
+                    new ServletWebRequest(attributes.getRequest()))) {
+                if (accepted.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return "";
+                }
+                if (accepted.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                    return "-" + CBOR_ETAG_SUFFIX;
+                }
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // The response will not be written in either encoding
+        }
+        return "";
+    }
+
+    /**
+     * The account state an If-Match header requires
+     * @return the required version, or null if there is no header or it is *
+     * @throws IllegalArgumentException if the header lists more than one ETag
+     */
+    private static AccountVersion requiredVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.stream().anyMatch(ETag::isWildcard)) {
+            return null;
+        }
+        if (tags.size() != 1) {
+            throw new IllegalArgumentException("If-Match must name a single ETag");
+        }
+        // If-Match uses the strong comparison; a weak or foreign ETag matches no version.
+        // The ETag of either encoding names the same version.
+        String[] parts = tags.get(0).tag().split("-");
+        try {
+            if (!tags.get(0).weak()
+                    && (parts.length == 2 || parts.length == 3 && CBOR_ETAG_SUFFIX.equals(parts[2]))) {
+                return new AccountVersion(Long.parseLong(parts[0]), Instant.ofEpochMilli(Long.parseLong(parts[1])));
+            }
+        } catch (NumberFormatException e) {
+            // falls through to the version nothing is at
+        }
+        return new AccountVersion(-1L, null);
+    }
+
+    /**
+     * A failed If-Match is 412; without one a version conflict keeps its usual 409
+     */
+    private ResponseEntity<Account> preconditionFailedOr(String ifMatch, OptimisticLockingFailureException e) {
+        if (ifMatch == null) {
+            throw e;
+        }
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    /**
+     * Whether the client's copy is still current: If-None-Match is checked with the weak comparison
+     * and, only when it is absent, If-Modified-Since at the one-second precision of HTTP dates
+     */
+    private static boolean isNotModified(String ifNoneMatch, String ifModifiedSince, ETag eTag, Instant lastModified) {
+        if (ifNoneMatch != null) {
+            return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(eTag, false));
+        }
+        if (ifModifiedSince == null || lastModified == null) {
+            return false;
+        }
+        try {
+            Instant since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+        } catch (DateTimeParseException e) {
+            // An invalid date is ignored
+            return false;
+        }
+    }
+
+    private ResponseEntity<Account> applyBalanceDelta(String accountNumber, String amount, boolean debit) {
+        long value;
+        try {
+            value = accountService.parseAmount(amount);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (accountService.isBalanceCoalescingEnabled()) {
+            boolean queued = accountService.submitBalanceDelta(accountNumber, debit ? -value : value);
+            return queued ? ResponseEntity.accepted().build() : ResponseEntity.notFound().build();
+        }
+
+        Optional<Account> account = debit
+                ? accountService.debitAccount(accountNumber, value)
+                : accountService.creditAccount(accountNumber, value);
+
+        if (account.isPresent()) {
+            return ok(account.get());
         } else {
             return ResponseEntity.notFound().build();
         }
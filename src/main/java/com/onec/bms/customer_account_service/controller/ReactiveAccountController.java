@@ -0,0 +1,130 @@
+package com.onec.bms.customer_account_service.controller;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.service.ReactiveAccountService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking read API backed by R2DBC, running alongside CustomerAccountController.
+ * Collections are returned as a JSON array, and the /stream variants emit them as NDJSON or
+ * Server-Sent Events: streams are written one account at a time and only pull the next row
+ * from the database once the previous one has been written.
+ */
+@RestController
+@RequestMapping("/api/v1/reactive/accounts")
+@Tag(name = "Customer Account Reactive Reads", description = "Non-blocking and streamed account lookups")
+public class ReactiveAccountController {
+
+    @Autowired
+    private ReactiveAccountService reactiveAccountService;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get all accounts", description = "Retrieve all accounts ordered by account number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved all accounts",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = Account.class)))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public Flux<Account> getAllAccounts() {
+        return reactiveAccountService.getAllAccounts();
+    }
+
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Stream all accounts",
+            description = "Stream every account ordered by account number as newline-delimited JSON " +
+                    "or Server-Sent Events, depending on the Accept header")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream started",
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = Account.class)),
+                            @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = Account.class))
+                    }),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public Flux<Account> streamAllAccounts() {
+        return reactiveAccountService.getAllAccounts();
+    }
+
+    @GetMapping("/{accountNumber}")
+    @Operation(summary = "Get account by account number",
+            description = "Retrieve a specific customer account by its account number without blocking a thread")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Account found successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Account.class))),
+            @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public Mono<ResponseEntity<Account>> getAccountByNumber(
+            @Parameter(description = "Account number", required = true, example = "ACC-000001")
+            @PathVariable String accountNumber) {
+
+        return reactiveAccountService.getAccountByNumber(accountNumber)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/customer/{customerId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get accounts by customer ID",
+            description = "Retrieve all accounts for a specific customer, ordered by account number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Customer accounts found successfully",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = Account.class)))),
+            @ApiResponse(responseCode = "404", description = "No accounts found for customer"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public Mono<ResponseEntity<List<Account>>> getAccountsByCustomerId(
+            @Parameter(description = "Customer ID", required = true, example = "CUST-001")
+            @PathVariable String customerId) {
+
+        return reactiveAccountService.getAccountsByCustomerId(customerId)
+                .collectList()
+                .map(accounts -> accounts.isEmpty()
+                        ? ResponseEntity.notFound().<List<Account>>build()
+                        : ResponseEntity.ok(accounts));
+    }
+
+    @GetMapping(value = "/customer/{customerId}/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Stream accounts by customer ID",
+            description = "Stream the accounts of a customer ordered by account number as newline-delimited " +
+                    "JSON or Server-Sent Events. An unknown customer yields an empty stream rather than 404.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream started",
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = Account.class)),
+                            @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = Account.class))
+                    }),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public Flux<Account> streamAccountsByCustomerId(
+            @Parameter(description = "Customer ID", required = true, example = "CUST-001")
+            @PathVariable String customerId) {
+
+        return reactiveAccountService.getAccountsByCustomerId(customerId);
+    }
+}
@@ -0,0 +1,54 @@
+package com.onec.bms.customer_account_service.migration;
+
+import com.onec.bms.customer_account_service.model.CustomerNames;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Adds the indexed, normalized copy of the customer name used by the name search.
+ * Existing rows are backfilled in Java because the normalization (accent stripping
+ * and case folding, see {@link CustomerNames}) has no SQL equivalent in H2.
+ */
+public class V4__customer_name_normalized extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE accounts ADD COLUMN account_customer_name_normalized VARCHAR(255)");
+        }
+
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE accounts SET account_customer_name_normalized = ? WHERE account_number = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            int pending = 0;
+            try (ResultSet rows = select.executeQuery("SELECT account_number, account_customer_name FROM accounts")) {
+                while (rows.next()) {
+                    update.setString(1, CustomerNames.normalize(rows.getString(2)));
+                    update.setString(2, rows.getString(1));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE accounts ALTER COLUMN account_customer_name_normalized SET NOT NULL");
+            statement.execute("CREATE INDEX idx_accounts_customer_name_norm ON accounts (account_customer_name_normalized)");
+        }
+    }
+}
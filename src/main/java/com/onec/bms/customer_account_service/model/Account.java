@@ -1,11 +1,28 @@
 package com.onec.bms.customer_account_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "accounts")
+@DynamicUpdate
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_accounts_customer_id", columnList = "account_customer_id"),
+        @Index(name = "idx_accounts_customer_email", columnList = "account_customer_email"),
+        @Index(name = "idx_accounts_customer_name_norm", columnList = "account_customer_name_normalized"),
+        @Index(name = "idx_accounts_type", columnList = "account_type"),
+        @Index(name = "idx_accounts_status_type", columnList = "account_status, account_type"),
+        @Index(name = "idx_accounts_branch_status", columnList = "account_branch, account_status"),
+        @Index(name = "idx_accounts_branch_balance", columnList = "account_branch, account_balance_minor")
+})
 @Schema(description = "Customer Account Information")
+@JsonPropertyOrder({"accountNumber", "accountType", "accountStatus", "accountBalance", "accountCurrency"})
 public class Account {
     
     @Id
@@ -21,12 +38,12 @@ public class Account {
     @Schema(description = "Current status of the account", example = "ACTIVE")
     private String accountStatus;
     
-    @Column(name = "account_balance", nullable = false)
-    @Schema(description = "Current account balance", example = "1000.00")
-    private String accountBalance;
+    @Column(name = "account_balance_minor", nullable = false)
+    @JsonIgnore
+    private Long accountBalanceMinor;
     
     @Column(name = "account_currency", nullable = false)
-    @Schema(description = "Account currency", example = "USD")
+    @Schema(description = "Account currency, an ISO 4217 code with two fraction digits", example = "USD")
     private String accountCurrency;
     
     @Column(name = "account_opening_date")
@@ -52,6 +69,10 @@ public class Account {
     @Column(name = "account_customer_name", nullable = false)
     @Schema(description = "Customer name", example = "John Doe")
     private String accountCustomerName;
+
+    @Column(name = "account_customer_name_normalized", nullable = false)
+    @JsonIgnore
+    private String accountCustomerNameNormalized;
     
     @Column(name = "account_customer_email")
     @Schema(description = "Customer email address", example = "john.doe@email.com")
@@ -77,6 +98,19 @@ public class Account {
     @Schema(description = "Customer ZIP code", example = "10001")
     private String accountCustomerZip;
 
+    @Version
+    @Column(name = "version")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Optimistic lock version, incremented on every change",
+            example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
+    @Column(name = "last_modified", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "When the account was last written", example = "2024-06-01T12:30:00.125Z",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant lastModified;
+
     // Default constructor
     public Account() {}
 
@@ -90,14 +124,14 @@ public class Account {
         this.accountNumber = accountNumber;
         this.accountType = accountType;
         this.accountStatus = accountStatus;
-        this.accountBalance = accountBalance;
+        setAccountBalance(accountBalance);
         this.accountCurrency = accountCurrency;
         this.accountOpeningDate = accountOpeningDate;
         this.accountClosingDate = accountClosingDate;
         this.accountDescription = accountDescription;
         this.accountBranch = accountBranch;
         this.accountCustomerId = accountCustomerId;
-        this.accountCustomerName = accountCustomerName;
+        setAccountCustomerName(accountCustomerName);
         this.accountCustomerEmail = accountCustomerEmail;
         this.accountCustomerPhone = accountCustomerPhone;
         this.accountCustomerAddress = accountCustomerAddress;
@@ -131,12 +165,25 @@ public class Account {
         this.accountStatus = accountStatus;
     }
 
+    @Schema(description = "Current account balance", example = "1000.00")
     public String getAccountBalance() {
-        return accountBalance;
+        return accountBalanceMinor == null ? null : Balances.format(accountBalanceMinor);
     }
 
+    /**
+     * Set the balance from decimal text
+     * @throws IllegalArgumentException if the balance is not a number or has more than two fraction digits
+     */
     public void setAccountBalance(String accountBalance) {
-        this.accountBalance = accountBalance;
+        this.accountBalanceMinor = accountBalance == null ? null : Balances.parse(accountBalance);
+    }
+
+    public Long getAccountBalanceMinor() {
+        return accountBalanceMinor;
+    }
+
+    public void setAccountBalanceMinor(Long accountBalanceMinor) {
+        this.accountBalanceMinor = accountBalanceMinor;
     }
 
     public String getAccountCurrency() {
@@ -193,6 +240,11 @@ public class Account {
 
     public void setAccountCustomerName(String accountCustomerName) {
         this.accountCustomerName = accountCustomerName;
+        this.accountCustomerNameNormalized = CustomerNames.normalize(accountCustomerName);
+    }
+
+    public String getAccountCustomerNameNormalized() {
+        return accountCustomerNameNormalized;
     }
 
     public String getAccountCustomerEmail() {
@@ -243,13 +295,43 @@ public class Account {
         this.accountCustomerZip = accountCustomerZip;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * The current time at the precision last_modified is compared at, so that a value
+     * handed out in an ETag matches the stored one exactly
+     */
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = now();
+    }
+
     @Override
     public String toString() {
         return "Account{" +
                 "accountNumber='" + accountNumber + '\'' +
                 ", accountType='" + accountType + '\'' +
                 ", accountStatus='" + accountStatus + '\'' +
-                ", accountBalance='" + accountBalance + '\'' +
+                ", accountBalance='" + getAccountBalance() + '\'' +
                 ", accountCurrency='" + accountCurrency + '\'' +
                 ", accountOpeningDate='" + accountOpeningDate + '\'' +
                 ", accountClosingDate='" + accountClosingDate + '\'' +
@@ -263,6 +345,8 @@ public class Account {
                 ", accountCustomerCity='" + accountCustomerCity + '\'' +
                 ", accountCustomerState='" + accountCustomerState + '\'' +
                 ", accountCustomerZip='" + accountCustomerZip + '\'' +
+                ", version=" + version +
+                ", lastModified=" + lastModified +
                 '}';
     }
 }
@@ -0,0 +1,89 @@
+package com.onec.bms.customer_account_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One entry of the account change log, written in the transaction of the change it records.
+ * Its sequence number is assigned once that transaction has committed.
+ */
+@Entity
+@Table(name = "account_changes", indexes = {
+        @Index(name = "idx_account_changes_account", columnList = "account_number, sequence"),
+        @Index(name = "idx_account_changes_sequence", columnList = "sequence", unique = true)
+})
+@Schema(description = "A committed change to an account")
+public class AccountChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_change_id_seq")
+    @SequenceGenerator(name = "account_change_id_seq", sequenceName = "account_change_id_seq", allocationSize = 50)
+    @JsonIgnore
+    private Long id;
+
+    @Column(name = "sequence")
+    @Schema(description = "Position in the change log; increases with every committed change", example = "1024")
+    private Long sequence;
+
+    @Column(name = "account_number", nullable = false)
+    @Schema(description = "The account that changed", example = "ACC-12345")
+    private String accountNumber;
+
+    @Column(name = "change_type", nullable = false)
+    @Schema(description = "What happened to the account", example = "UPDATED",
+            allowableValues = {"CREATED", "UPDATED", "DELETED"})
+    private String changeType;
+
+    @Column(name = "recorded_at", nullable = false)
+    @Schema(description = "When the change was committed", example = "2024-06-01T12:30:00.125Z")
+    private Instant recordedAt;
+
+    // Default constructor
+    public AccountChange() {}
+
+    public AccountChange(Long sequence, String accountNumber, String changeType, Instant recordedAt) {
+        this.sequence = sequence;
+        this.accountNumber = accountNumber;
+        this.changeType = changeType;
+        this.recordedAt = recordedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+
+    public Instant getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(Instant recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
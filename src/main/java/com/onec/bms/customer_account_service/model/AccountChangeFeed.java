@@ -0,0 +1,39 @@
+package com.onec.bms.customer_account_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Account changes committed after a sequence number, oldest first")
+public class AccountChangeFeed {
+
+    @Schema(description = "The changes; empty if none was committed while the request waited")
+    private List<AccountChange> changes;
+
+    @Schema(description = "Sequence to resume from with the next request", example = "1024")
+    private long nextSequence;
+
+    // Default constructor
+    public AccountChangeFeed() {}
+
+    public AccountChangeFeed(List<AccountChange> changes, long nextSequence) {
+        this.changes = changes;
+        this.nextSequence = nextSequence;
+    }
+
+    public List<AccountChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<AccountChange> changes) {
+        this.changes = changes;
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    public void setNextSequence(long nextSequence) {
+        this.nextSequence = nextSequence;
+    }
+}
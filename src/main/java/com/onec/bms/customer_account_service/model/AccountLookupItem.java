@@ -0,0 +1,60 @@
+package com.onec.bms.customer_account_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome for one account number in a batch lookup")
+public class AccountLookupItem {
+
+    public static final String FOUND = "FOUND";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    @Schema(description = "Account number as requested", example = "ACC-000001")
+    private String accountNumber;
+
+    @Schema(description = "Outcome of the lookup", example = "FOUND")
+    private String status;
+
+    @Schema(description = "The account, absent when not found")
+    private Account account;
+
+    // Default constructor
+    public AccountLookupItem() {}
+
+    public AccountLookupItem(String accountNumber, String status, Account account) {
+        this.accountNumber = accountNumber;
+        this.status = status;
+        this.account = account;
+    }
+
+    public static AccountLookupItem found(Account account) {
+        return new AccountLookupItem(account.getAccountNumber(), FOUND, account);
+    }
+
+    public static AccountLookupItem notFound(String accountNumber) {
+        return new AccountLookupItem(accountNumber, NOT_FOUND, null);
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public void setAccount(Account account) {
+        this.account = account;
+    }
+}
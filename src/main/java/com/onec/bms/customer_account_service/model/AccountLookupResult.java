@@ -0,0 +1,55 @@
+package com.onec.bms.customer_account_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Result of a batch account lookup")
+public class AccountLookupResult {
+
+    @Schema(description = "Number of account numbers found", example = "498")
+    private int found;
+
+    @Schema(description = "Account numbers that do not exist, in request order", example = "[\"ACC-999999\"]")
+    private List<String> missing = new ArrayList<>();
+
+    @Schema(description = "One outcome per requested account number, in request order")
+    private List<AccountLookupItem> items = new ArrayList<>();
+
+    // Default constructor
+    public AccountLookupResult() {}
+
+    public void add(AccountLookupItem item) {
+        items.add(item);
+        if (AccountLookupItem.FOUND.equals(item.getStatus())) {
+            found++;
+        } else {
+            missing.add(item.getAccountNumber());
+        }
+    }
+
+    public int getFound() {
+        return found;
+    }
+
+    public void setFound(int found) {
+        this.found = found;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+
+    public List<AccountLookupItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<AccountLookupItem> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,51 @@
+package com.onec.bms.customer_account_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of customer accounts ordered by account number")
+public class AccountPage {
+
+    @Schema(description = "Accounts on this page")
+    private List<Account> accounts;
+
+    @Schema(description = "Opaque cursor for the next page, absent on the last page", example = "QUNDLTAwMDA1MA")
+    private String nextCursor;
+
+    @Schema(description = "Page size that was applied", example = "50")
+    private int limit;
+
+    // Default constructor
+    public AccountPage() {}
+
+    public AccountPage(List<Account> accounts, String nextCursor, int limit) {
+        this.accounts = accounts;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(List<Account> accounts) {
+        this.accounts = accounts;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
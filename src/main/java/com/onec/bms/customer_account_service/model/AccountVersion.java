@@ -0,0 +1,16 @@
+package com.onec.bms.customer_account_service.model;
+
+import java.time.Instant;
+
+/**
+ * What identifies one state of an account: its optimistic lock version and when it was last written.
+ * Enough to validate a cached copy without loading the account itself.
+ * @param version the account version
+ * @param lastModified when the account was last written; null when only the version is known
+ */
+public record AccountVersion(Long version, Instant lastModified) {
+
+    public static AccountVersion of(Account account) {
+        return new AccountVersion(account.getVersion(), account.getLastModified());
+    }
+}
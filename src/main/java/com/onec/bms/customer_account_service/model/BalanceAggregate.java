@@ -0,0 +1,86 @@
+package com.onec.bms.customer_account_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Account count and balance total of one group of accounts")
+public class BalanceAggregate {
+
+    @Schema(description = "Branch, absent when not grouped by branch", example = "MAIN_BRANCH")
+    private String accountBranch;
+
+    @Schema(description = "Currency of the balance total", example = "USD")
+    private String accountCurrency;
+
+    @Schema(description = "Account type, absent when not grouped by type", example = "SAVINGS")
+    private String accountType;
+
+    @Schema(description = "Account status, absent when not grouped by status", example = "ACTIVE")
+    private String accountStatus;
+
+    @Schema(description = "Number of accounts in the group", example = "42")
+    private long accountCount;
+
+    @Schema(description = "Sum of the balances in the group", example = "125000.50")
+    private String totalBalance;
+
+    // Default constructor
+    public BalanceAggregate() {}
+
+    public BalanceAggregate(String accountBranch, String accountCurrency, String accountType, String accountStatus,
+                            long accountCount, String totalBalance) {
+        this.accountBranch = accountBranch;
+        this.accountCurrency = accountCurrency;
+        this.accountType = accountType;
+        this.accountStatus = accountStatus;
+        this.accountCount = accountCount;
+        this.totalBalance = totalBalance;
+    }
+
+    public String getAccountBranch() {
+        return accountBranch;
+    }
+
+    public void setAccountBranch(String accountBranch) {
+        this.accountBranch = accountBranch;
+    }
+
+    public String getAccountCurrency() {
+        return accountCurrency;
+    }
+
+    public void setAccountCurrency(String accountCurrency) {
+        this.accountCurrency = accountCurrency;
+    }
+
+    public String getAccountType() {
+        return accountType;
+    }
+
+    public void setAccountType(String accountType) {
+        this.accountType = accountType;
+    }
+
+    public String getAccountStatus() {
+        return accountStatus;
+    }
+
+    public void setAccountStatus(String accountStatus) {
+        this.accountStatus = accountStatus;
+    }
+
+    public long getAccountCount() {
+        return accountCount;
+    }
+
+    public void setAccountCount(long accountCount) {
+        this.accountCount = accountCount;
+    }
+
+    public String getTotalBalance() {
+        return totalBalance;
+    }
+
+    public void setTotalBalance(String totalBalance) {
+        this.totalBalance = totalBalance;
+    }
+}
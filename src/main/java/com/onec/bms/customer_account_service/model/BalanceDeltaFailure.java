@@ -0,0 +1,77 @@
+package com.onec.bms.customer_account_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A coalesced balance delta that was accepted but could not be applied to its account,
+ * kept so it can be reconciled instead of being lost
+ */
+@Entity
+@Table(name = "balance_delta_failures", indexes = {
+        @Index(name = "idx_balance_delta_failures_account", columnList = "account_number")
+})
+@Schema(description = "An accepted credit or debit that could not be applied")
+public class BalanceDeltaFailure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_delta_failure_id_seq")
+    @SequenceGenerator(name = "balance_delta_failure_id_seq", sequenceName = "balance_delta_failure_id_seq",
+            allocationSize = 50)
+    @Schema(description = "Identifier of the failure", example = "1")
+    private Long id;
+
+    @Column(name = "account_number", nullable = false)
+    @Schema(description = "The account the delta was for", example = "ACC-12345")
+    private String accountNumber;
+
+    @Column(name = "delta_minor", nullable = false)
+    @JsonIgnore
+    private Long deltaMinor;
+
+    @Column(name = "reason", length = 1000)
+    @Schema(description = "Why the delta could not be applied", example = "Account not found")
+    private String reason;
+
+    @Column(name = "failed_at", nullable = false)
+    @Schema(description = "When the delta was given up on", example = "2024-06-01T12:30:00.125Z")
+    private Instant failedAt;
+
+    // Default constructor
+    public BalanceDeltaFailure() {}
+
+    public BalanceDeltaFailure(String accountNumber, long deltaMinor, String reason, Instant failedAt) {
+        this.accountNumber = accountNumber;
+        this.deltaMinor = deltaMinor;
+        this.reason = reason;
+        this.failedAt = failedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    @Schema(description = "Signed amount that was not applied; negative for debits", example = "-25.00")
+    public String getAmount() {
+        return deltaMinor == null ? null : Balances.format(deltaMinor);
+    }
+
+    public Long getDeltaMinor() {
+        return deltaMinor;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Instant getFailedAt() {
+        return failedAt;
+    }
+}
@@ -0,0 +1,84 @@
+package com.onec.bms.customer_account_service.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Conversions between balance text such as "1000.50" and the minor units
+ * (hundredths of the currency unit) balances are stored and computed in.
+ * Every balance has the same scale, so only currencies with two fraction digits
+ * are supported; see {@link #checkCurrency}.
+ */
+public final class Balances {
+
+    /** Fraction digits of a stored balance */
+    public static final int SCALE = 2;
+
+    /** Minor units per currency unit */
+    private static final long UNIT = BigDecimal.ONE.movePointRight(SCALE).longValueExact();
+
+    private Balances() {}
+
+    /**
+     * Check that balances in a currency can be held at {@link #SCALE}
+     * @param currencyCode ISO 4217 currency code
+     * @throws IllegalArgumentException if the code is unknown, or the currency has
+     *         a different number of fraction digits, such as JPY or BHD
+     */
+    public static void checkCurrency(String currencyCode) {
+        Currency currency;
+        try {
+            currency = Currency.getInstance(currencyCode);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown currency: " + currencyCode, e);
+        }
+        if (currency.getDefaultFractionDigits() != SCALE) {
+            throw new IllegalArgumentException("Unsupported currency " + currencyCode + ": balances have "
+                    + SCALE + " fraction digits, " + currencyCode + " has " + currency.getDefaultFractionDigits());
+        }
+    }
+
+    /**
+     * Parse a balance or amount into minor units
+     * @param amount decimal text with at most two fraction digits
+     * @return the amount in minor units
+     * @throws IllegalArgumentException if the text is not a number, has more than
+     *         two fraction digits or does not fit
+     */
+    public static long parse(String amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        try {
+            return new BigDecimal(amount.trim())
+                    .setScale(SCALE, RoundingMode.UNNECESSARY)
+                    .movePointRight(SCALE)
+                    .longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount, e);
+        }
+    }
+
+    /**
+     * Format minor units as decimal text, e.g. 100050 as "1000.50"
+     * @param minorUnits the amount in minor units
+     * @return the formatted amount
+     */
+    public static String format(long minorUnits) {
+        if (minorUnits == Long.MIN_VALUE) {
+            return BigDecimal.valueOf(minorUnits, SCALE).toPlainString();
+        }
+        long abs = Math.abs(minorUnits);
+        String fraction = Long.toString(abs % UNIT);
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        text.append(abs / UNIT).append('.');
+        for (int pad = fraction.length(); pad < SCALE; pad++) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.onec.bms.customer_account_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Summary of a bulk account creation request")
+public class BulkCreateResult {
+
+    @Schema(description = "Number of accounts created", example = "998")
+    private int created;
+
+    @Schema(description = "Number of accounts that could not be created", example = "2")
+    private int failed;
+
+    @Schema(description = "Per-account outcomes in request order")
+    private List<BulkItemResult> items = new ArrayList<>();
+
+    // Default constructor
+    public BulkCreateResult() {}
+
+    public void add(BulkItemResult item) {
+        items.add(item);
+        if (BulkItemResult.CREATED.equals(item.getStatus())) {
+            created++;
+        } else {
+            failed++;
+        }
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkItemResult> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BulkItemResult> items) {
+        this.items = items;
+    }
+}
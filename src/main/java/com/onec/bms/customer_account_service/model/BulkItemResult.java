@@ -0,0 +1,72 @@
+package com.onec.bms.customer_account_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome for one account in a bulk request")
+public class BulkItemResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    @Schema(description = "Zero-based position of the account in the request", example = "0")
+    private int index;
+
+    @Schema(description = "Account number of the account", example = "ACC-000003")
+    private String accountNumber;
+
+    @Schema(description = "Outcome of the item", example = "CREATED")
+    private String status;
+
+    @Schema(description = "Reason the item failed", example = "accountCustomerId is required")
+    private String error;
+
+    // Default constructor
+    public BulkItemResult() {}
+
+    public BulkItemResult(int index, String accountNumber, String status, String error) {
+        this.index = index;
+        this.accountNumber = accountNumber;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BulkItemResult created(int index, String accountNumber) {
+        return new BulkItemResult(index, accountNumber, CREATED, null);
+    }
+
+    public static BulkItemResult failed(int index, String accountNumber, String error) {
+        return new BulkItemResult(index, accountNumber, FAILED, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,64 @@
+package com.onec.bms.customer_account_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Status change for a set of accounts, selected by exactly one of branch, customer or account numbers")
+public class BulkStatusChange {
+
+    @Schema(description = "New status; CLOSED also sets today as the closing date where none is set",
+            example = "SUSPENDED", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String status;
+
+    @Schema(description = "Change every account of this branch", example = "MAIN_BRANCH")
+    private String branch;
+
+    @Schema(description = "Change every account of this customer", example = "CUST-001")
+    private String customerId;
+
+    @Schema(description = "Change these accounts", example = "[\"ACC-000001\", \"ACC-000002\"]")
+    private List<String> accountNumbers;
+
+    // Default constructor
+    public BulkStatusChange() {}
+
+    public BulkStatusChange(String status, String branch, String customerId, List<String> accountNumbers) {
+        this.status = status;
+        this.branch = branch;
+        this.customerId = customerId;
+        this.accountNumbers = accountNumbers;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getBranch() {
+        return branch;
+    }
+
+    public void setBranch(String branch) {
+        this.branch = branch;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public List<String> getAccountNumbers() {
+        return accountNumbers;
+    }
+
+    public void setAccountNumbers(List<String> accountNumbers) {
+        this.accountNumbers = accountNumbers;
+    }
+}
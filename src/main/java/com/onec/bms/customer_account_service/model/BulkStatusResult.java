@@ -0,0 +1,52 @@
+package com.onec.bms.customer_account_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Summary of a bulk status change")
+public class BulkStatusResult {
+
+    @Schema(description = "Status the accounts were moved to", example = "SUSPENDED")
+    private String status;
+
+    @Schema(description = "Number of accounts changed; accounts already in the status are left alone", example = "1250")
+    private int updated;
+
+    @Schema(description = "Requested account numbers that were not changed because they do not exist " +
+            "or already had the status, in request order; empty unless accounts were listed explicitly",
+            example = "[\"ACC-999999\"]")
+    private List<String> notUpdated = new ArrayList<>();
+
+    // Default constructor
+    public BulkStatusResult() {}
+
+    public BulkStatusResult(String status) {
+        this.status = status;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public List<String> getNotUpdated() {
+        return notUpdated;
+    }
+
+    public void setNotUpdated(List<String> notUpdated) {
+        this.notUpdated = notUpdated;
+    }
+}
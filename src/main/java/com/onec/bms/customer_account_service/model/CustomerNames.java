@@ -0,0 +1,30 @@
+package com.onec.bms.customer_account_service.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalization of customer names for searching: accents stripped, case folded
+ * and runs of whitespace collapsed, so "  José  GARCÍA" becomes "jose garcia".
+ */
+public final class CustomerNames {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private CustomerNames() {}
+
+    /**
+     * Normalize a customer name or search text
+     * @param name the name, may be null
+     * @return the normalized name, empty for null
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,12 @@
+package com.onec.bms.customer_account_service.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Some fields of a list of accounts, and the fingerprint of the list in that shape
+ * @param accounts the selected fields of every account, by JSON property name
+ * @param fingerprint identifies these accounts at their current versions with these fields
+ */
+public record ProjectedAccounts(List<Map<String, Object>> accounts, String fingerprint) {
+}
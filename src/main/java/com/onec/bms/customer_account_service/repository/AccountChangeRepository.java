@@ -0,0 +1,92 @@
+package com.onec.bms.customer_account_service.repository;
+
+import com.onec.bms.customer_account_service.model.AccountChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountChangeRepository extends JpaRepository<AccountChange, Long> {
+
+    /**
+     * Find the changes in a range of sequence numbers, oldest first
+     * @param from the lowest sequence number to return
+     * @param to the highest sequence number to return
+     * @param limit maximum number of changes to return
+     * @return the changes
+     */
+    List<AccountChange> findBySequenceBetweenOrderBySequence(long from, long to, Limit limit);
+
+    /**
+     * Take the lock that serializes numbering the log, across every node, until the transaction ends
+     */
+    @Query(value = "select id from account_change_sequencer where id = 1 for update", nativeQuery = true)
+    Integer lockSequencer();
+
+    /**
+     * Number the committed changes that have no sequence number yet, from account_change_seq.
+     * Call with the sequencer lock held, so numbers are handed out in one place at a time.
+     * @return number of changes numbered
+     */
+    @Modifying
+    @Query(value = "update account_changes set sequence = next value for account_change_seq " +
+            "where sequence is null", nativeQuery = true)
+    int assignSequences();
+
+    /**
+     * Highest sequence number in the log
+     * @return the sequence number, null if nothing has been numbered
+     */
+    @Query("select max(c.sequence) from AccountChange c")
+    Long findLastSequence();
+
+    /**
+     * Which of the given changes are in the log
+     * @param ids keys of the changes
+     * @return the keys of those present
+     */
+    @Query("select c.id from AccountChange c where c.id in :ids")
+    List<Long> findIdsIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lowest and highest sequence number in the log
+     * @return one row of lowest and highest sequence, both null if the log is empty
+     */
+    @Query("select min(c.sequence), max(c.sequence) from AccountChange c")
+    List<Object[]> findSequenceRange();
+
+    /**
+     * Highest sequence number of the changes recorded before a time
+     * @param recordedAt the time
+     * @return the sequence number, null if no change is that old
+     */
+    @Query("select max(c.sequence) from AccountChange c where c.recordedAt < :recordedAt")
+    Long findLastSequenceBefore(@Param("recordedAt") Instant recordedAt);
+
+    /**
+     * Delete the changes up to a sequence number
+     * @param sequence the highest sequence number to delete
+     * @return number of changes deleted
+     */
+    @Modifying
+    @Query("delete from AccountChange c where c.sequence <= :sequence")
+    int deleteThrough(@Param("sequence") long sequence);
+
+    /**
+     * Delete the changes up to a sequence number that a later change of the same account supersedes
+     * @param sequence the highest sequence number to compact
+     * @return number of changes deleted
+     */
+    @Modifying
+    @Query("delete from AccountChange c where c.sequence <= :sequence and exists (" +
+            "select 1 from AccountChange later where later.accountNumber = c.accountNumber " +
+            "and later.sequence > c.sequence)")
+    int deleteSupersededThrough(@Param("sequence") long sequence);
+}
@@ -0,0 +1,43 @@
+package com.onec.bms.customer_account_service.repository;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.AccountVersion;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Targeted account updates that write only the given columns, without loading the account first
+ */
+public interface AccountColumnUpdates {
+
+    /**
+     * Set some attributes of an account and bump its version in a single UPDATE statement
+     * @param accountNumber the account number
+     * @param changes new values by Account attribute name, e.g. accountStatus or accountBalanceMinor
+     * @param expected only update the account if it is at this version, and was last modified at this
+     *                 time if one is given; null for any version
+     * @return the account as it was before the update, detached; empty if no account matched
+     * @throws IllegalArgumentException if an attribute cannot be updated
+     */
+    Optional<Account> updateColumns(String accountNumber, Map<String, Object> changes, AccountVersion expected);
+
+    /**
+     * Move up to a limit of matching accounts that are not in the given status yet to it, bumping
+     * their versions, in a single UPDATE
+     * @param filter attribute the accounts are selected by: accountBranch, accountCustomerId, or
+     *               accountNumber to select a collection of account numbers
+     * @param value the branch, customer ID or collection of account numbers
+     * @param status the new status
+     * @param closingDate closing date for accounts that have none yet, or null to leave closing dates alone
+     * @param lastModified the new modification time
+     * @param limit most accounts to change
+     * @return account number, branch, currency, type, status and balance of every changed account,
+     *         as they were before the update
+     * @throws IllegalArgumentException if accounts cannot be selected by the attribute
+     */
+    List<Object[]> updateStatusWhere(String filter, Object value, String status, String closingDate,
+                                     Instant lastModified, int limit);
+}
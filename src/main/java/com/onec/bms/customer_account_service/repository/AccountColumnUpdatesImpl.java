@@ -0,0 +1,140 @@
+package com.onec.bms.customer_account_service.repository;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.AccountVersion;
+import com.onec.bms.customer_account_service.model.CustomerNames;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Runs the UPDATE inside an H2 OLD TABLE delta table, so the statement that writes
+ * the new values also returns the row as it was before them.
+ */
+class AccountColumnUpdatesImpl implements AccountColumnUpdates {
+
+    private static final Map<String, String> COLUMNS = Map.ofEntries(
+            Map.entry("accountType", "account_type"),
+            Map.entry("accountStatus", "account_status"),
+            Map.entry("accountBalanceMinor", "account_balance_minor"),
+            Map.entry("accountCurrency", "account_currency"),
+            Map.entry("accountOpeningDate", "account_opening_date"),
+            Map.entry("accountClosingDate", "account_closing_date"),
+            Map.entry("accountDescription", "account_description"),
+            Map.entry("accountBranch", "account_branch"),
+            Map.entry("accountCustomerId", "account_customer_id"),
+            Map.entry("accountCustomerName", "account_customer_name"),
+            Map.entry("accountCustomerEmail", "account_customer_email"),
+            Map.entry("accountCustomerPhone", "account_customer_phone"),
+            Map.entry("accountCustomerAddress", "account_customer_address"),
+            Map.entry("accountCustomerCity", "account_customer_city"),
+            Map.entry("accountCustomerState", "account_customer_state"),
+            Map.entry("accountCustomerZip", "account_customer_zip"),
+            Map.entry("lastModified", "last_modified"));
+
+    private static final String SELECT_ACCOUNT = """
+            select account_number, account_type, account_status, account_balance_minor, account_currency,
+                   account_opening_date, account_closing_date, account_description, account_branch,
+                   account_customer_id, account_customer_name, account_customer_email, account_customer_phone,
+                   account_customer_address, account_customer_city, account_customer_state,
+                   account_customer_zip, version, last_modified
+            from old table (update accounts set\s""";
+
+    /** Attributes a bulk status change may select accounts by */
+    private static final Map<String, String> FILTERS = Map.of(
+            "accountBranch", "account_branch = :value",
+            "accountCustomerId", "account_customer_id = :value",
+            "accountNumber", "account_number in (:value)");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Account> updateColumns(String accountNumber, Map<String, Object> changes, AccountVersion expected) {
+        StringBuilder sql = new StringBuilder(SELECT_ACCOUNT);
+        Map<String, Object> parameters = new HashMap<>();
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String column = COLUMNS.get(change.getKey());
+            if (column == null) {
+                throw new IllegalArgumentException("Not an updatable account attribute: " + change.getKey());
+            }
+            String parameter = "p" + parameters.size();
+            sql.append(column).append(" = :").append(parameter).append(", ");
+            parameters.put(parameter, change.getValue());
+            if (change.getKey().equals("accountCustomerName")) {
+                sql.append("account_customer_name_normalized = :normalizedName, ");
+                parameters.put("normalizedName", CustomerNames.normalize((String) change.getValue()));
+            }
+        }
+        sql.append("version = version + 1 where account_number = :accountNumber");
+        parameters.put("accountNumber", accountNumber);
+        if (expected != null) {
+            sql.append(" and version = :expectedVersion");
+            parameters.put("expectedVersion", expected.version());
+            if (expected.lastModified() != null) {
+                sql.append(" and last_modified = :expectedLastModified");
+                parameters.put("expectedLastModified", expected.lastModified());
+            }
+        }
+        sql.append(")");
+
+        // Write pending changes first, and drop managed copies afterwards since they no longer match the row
+        entityManager.flush();
+        Query query = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(query::setParameter);
+        List<Object[]> rows = query.getResultList();
+        entityManager.clear();
+        return rows.stream().findFirst().map(AccountColumnUpdatesImpl::toAccount);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> updateStatusWhere(String filter, Object value, String status, String closingDate,
+                                            Instant lastModified, int limit) {
+        String condition = FILTERS.get(filter);
+        if (condition == null) {
+            throw new IllegalArgumentException("Accounts cannot be selected by " + filter);
+        }
+        String sql = "select account_number, account_branch, account_currency, account_type, account_status, " +
+                "account_balance_minor from old table (update accounts set account_status = :status, " +
+                (closingDate == null ? "" : "account_closing_date = coalesce(account_closing_date, :closingDate), ") +
+                "version = version + 1, last_modified = :lastModified " +
+                "where " + condition + " and account_status <> :status fetch first :limit rows only)";
+
+        entityManager.flush();
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("value", value)
+                .setParameter("status", status)
+                .setParameter("lastModified", lastModified)
+                .setParameter("limit", limit);
+        if (closingDate != null) {
+            query.setParameter("closingDate", closingDate);
+        }
+        List<Object[]> rows = query.getResultList();
+        entityManager.clear();
+        return rows;
+    }
+
+    private static Account toAccount(Object[] row) {
+        Account account = new Account((String) row[0], (String) row[1], (String) row[2], null, (String) row[4],
+                (String) row[5], (String) row[6], (String) row[7], (String) row[8], (String) row[9],
+                (String) row[10], (String) row[11], (String) row[12], (String) row[13], (String) row[14],
+                (String) row[15], (String) row[16]);
+        account.setAccountBalanceMinor(((Number) row[3]).longValue());
+        account.setVersion(((Number) row[17]).longValue());
+        account.setLastModified(toInstant(row[18]));
+        return account;
+    }
+
+    private static Instant toInstant(Object value) {
+        return value instanceof OffsetDateTime time ? time.toInstant() : (Instant) value;
+    }
+}
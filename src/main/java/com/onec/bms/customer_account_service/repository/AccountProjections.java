@@ -0,0 +1,26 @@
+package com.onec.bms.customer_account_service.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queries that select only some attributes of accounts, named by their JSON properties
+ */
+public interface AccountProjections {
+
+    /** JSON properties of Account that can be selected, in the order they are returned */
+    List<String> FIELDS = List.of("accountNumber", "accountType", "accountStatus", "accountBalance",
+            "accountCurrency", "accountOpeningDate", "accountClosingDate", "accountDescription", "accountBranch",
+            "accountCustomerId", "accountCustomerName", "accountCustomerEmail", "accountCustomerPhone",
+            "accountCustomerAddress", "accountCustomerCity", "accountCustomerState", "accountCustomerZip",
+            "version", "lastModified");
+
+    /**
+     * Select the given properties of accounts with a query whose select list names only their columns
+     * @param fields properties to select, in the order they should appear in each row
+     * @param customerId only select the accounts of this customer; null for every account
+     * @return one row of property name to value per account, with the balance formatted as in Account
+     * @throws IllegalArgumentException if a property cannot be selected
+     */
+    List<Map<String, Object>> findFields(List<String> fields, String customerId);
+}
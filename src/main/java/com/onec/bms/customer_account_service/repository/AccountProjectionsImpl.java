@@ -0,0 +1,55 @@
+package com.onec.bms.customer_account_service.repository;
+
+import com.onec.bms.customer_account_service.model.Balances;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a JPQL tuple query per set of properties, so only their columns are read and nothing
+ * is hydrated into managed entities.
+ */
+class AccountProjectionsImpl implements AccountProjections {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(List<String> fields, String customerId) {
+        StringBuilder jpql = new StringBuilder("select ");
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            if (!FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Not a selectable account field: " + field);
+            }
+            // The balance is stored in minor units and formatted on the way out
+            jpql.append(i == 0 ? "a." : ", a.").append(field.equals("accountBalance") ? "accountBalanceMinor" : field);
+        }
+        jpql.append(" from Account a");
+        if (customerId != null) {
+            jpql.append(" where a.accountCustomerId = :customerId");
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        if (customerId != null) {
+            query.setParameter("customerId", customerId);
+        }
+        List<Tuple> tuples = query.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                Object value = tuple.get(i);
+                row.put(fields.get(i), fields.get(i).equals("accountBalance") ? Balances.format((Long) value) : value);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
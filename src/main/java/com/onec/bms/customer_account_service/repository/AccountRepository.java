@@ -1,14 +1,27 @@
 package com.onec.bms.customer_account_service.repository;
 
 import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.AccountVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, String> {
+public interface AccountRepository extends JpaRepository<Account, String>, AccountColumnUpdates,
+        AccountProjections {
     
     /**
      * Find account by account number
@@ -17,6 +30,32 @@ public interface AccountRepository extends JpaRepository<Account, String> {
      */
     Optional<Account> findByAccountNumber(String accountNumber);
     
+    /**
+     * Find the accounts with any of the given account numbers in one IN query
+     * @param accountNumbers the account numbers
+     * @return the accounts found, in no particular order
+     */
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    /**
+     * Find the version and modification time of an account without loading it
+     * @param accountNumber the account number
+     * @return Optional containing the version if the account exists
+     */
+    @Query("select new com.onec.bms.customer_account_service.model.AccountVersion(a.version, a.lastModified) " +
+            "from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountVersion> findVersionByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Find the account numbers, versions and modification times of a customer's accounts
+     * without loading the accounts
+     * @param customerId the customer ID
+     * @return rows of account number, version and modification time, ordered by account number
+     */
+    @Query("select a.accountNumber, a.version, a.lastModified from Account a " +
+            "where a.accountCustomerId = :customerId order by a.accountNumber")
+    List<Object[]> findVersionsByAccountCustomerId(@Param("customerId") String customerId);
+
     /**
      * Find all accounts for a specific customer
      * @param customerId the customer ID
@@ -51,6 +90,32 @@ public interface AccountRepository extends JpaRepository<Account, String> {
      * @return List of accounts for customers with the specified name
      */
     List<Account> findByAccountCustomerNameContainingIgnoreCase(String customerName);
+
+    /**
+     * Find accounts whose normalized customer name starts with a prefix (index range scan)
+     * @param prefix the normalized prefix
+     * @param sort the result order
+     * @param limit maximum number of accounts to return
+     * @return matching accounts
+     */
+    List<Account> findByAccountCustomerNameNormalizedStartingWith(String prefix, Sort sort, Limit limit);
+
+    /**
+     * Find accounts whose normalized customer name contains a fragment (full scan)
+     * @param fragment the normalized fragment
+     * @param limit maximum number of accounts to return
+     * @return matching accounts
+     */
+    List<Account> findByAccountCustomerNameNormalizedContaining(String fragment, Limit limit);
+
+    /**
+     * Stream the account number and normalized customer name of every account.
+     * Must be consumed inside a transaction and closed afterwards.
+     * @return stream of {accountNumber, normalizedName} pairs
+     */
+    @Query("select a.accountNumber, a.accountCustomerNameNormalized from Account a")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamCustomerNames();
     
     /**
      * Find accounts by customer email
@@ -58,7 +123,80 @@ public interface AccountRepository extends JpaRepository<Account, String> {
      * @return List of accounts for customers with the specified email
      */
     List<Account> findByAccountCustomerEmail(String email);
+
+    /**
+     * Find the next page of accounts after a given account number (keyset pagination).
+     * Null filters are ignored.
+     * @param after the last account number of the previous page, empty for the first page
+     * @param accountType optional account type filter
+     * @param accountStatus optional account status filter
+     * @param branch optional branch filter
+     * @param limit maximum number of accounts to return
+     * @return accounts ordered by account number
+     */
+    @Query("select a from Account a where a.accountNumber > :after " +
+            "and (:accountType is null or a.accountType = :accountType) " +
+            "and (:accountStatus is null or a.accountStatus = :accountStatus) " +
+            "and (:branch is null or a.accountBranch = :branch) " +
+            "order by a.accountNumber")
+    List<Account> findPageAfter(@Param("after") String after,
+                                @Param("accountType") String accountType,
+                                @Param("accountStatus") String accountStatus,
+                                @Param("branch") String branch,
+                                Limit limit);
     
+    /**
+     * Find the accounts of a branch whose balance lies in a range, largest balance first
+     * @param branch the branch name
+     * @param minBalance lower bound in minor units (inclusive)
+     * @param maxBalance upper bound in minor units (inclusive)
+     * @param limit maximum number of accounts to return
+     * @return matching accounts
+     */
+    @Query("select a from Account a where a.accountBranch = :branch " +
+            "and a.accountBalanceMinor between :minBalance and :maxBalance " +
+            "order by a.accountBalanceMinor desc")
+    List<Account> findByBranchAndBalanceRange(@Param("branch") String branch,
+                                              @Param("minBalance") long minBalance,
+                                              @Param("maxBalance") long maxBalance,
+                                              Limit limit);
+
+    /**
+     * Add a signed amount to the balance of an account and bump its version, returning the
+     * updated row in the same statement through an H2 data change delta table
+     * @param accountNumber the account number
+     * @param deltaMinor the amount to add, in minor units
+     * @param lastModified the new modification time
+     * @return branch, currency, type, status and new balance of the updated account; empty if not found
+     */
+    @Query(value = "select account_branch, account_currency, account_type, account_status, account_balance_minor " +
+            "from final table (update accounts set account_balance_minor = account_balance_minor + :deltaMinor, " +
+            "version = version + 1, last_modified = :lastModified where account_number = :accountNumber)",
+            nativeQuery = true)
+    List<Object[]> addToBalance(@Param("accountNumber") String accountNumber, @Param("deltaMinor") long deltaMinor,
+                                @Param("lastModified") Instant lastModified);
+
+    /**
+     * Account count and balance total for every combination of branch, currency, type and status
+     * @return rows of branch, currency, type, status, count and balance total in minor units
+     */
+    @Query("select a.accountBranch, a.accountCurrency, a.accountType, a.accountStatus, " +
+            "count(a), sum(a.accountBalanceMinor) from Account a " +
+            "group by a.accountBranch, a.accountCurrency, a.accountType, a.accountStatus")
+    List<Object[]> sumBalancesByGroup();
+
+    /**
+     * Stream every account ordered by account number through a JDBC cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     * @return stream of read-only accounts
+     */
+    @Query("select a from Account a order by a.accountNumber")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Account> streamAllAccounts();
+
     /**
      * Check if account exists by account number
      * @param accountNumber the account number
@@ -67,8 +205,12 @@ public interface AccountRepository extends JpaRepository<Account, String> {
     boolean existsByAccountNumber(String accountNumber);
     
     /**
-     * Delete account by account number
+     * Delete an account in a single DELETE that also returns the deleted row, through an H2
+     * data change delta table
      * @param accountNumber the account number
+     * @return branch, currency, type, status and balance of the deleted account; empty if not found
      */
-    void deleteByAccountNumber(String accountNumber);
+    @Query(value = "select account_branch, account_currency, account_type, account_status, account_balance_minor " +
+            "from old table (delete from accounts where account_number = :accountNumber)", nativeQuery = true)
+    List<Object[]> deleteByAccountNumber(@Param("accountNumber") String accountNumber);
 }
@@ -0,0 +1,19 @@
+package com.onec.bms.customer_account_service.repository;
+
+import com.onec.bms.customer_account_service.model.BalanceDeltaFailure;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BalanceDeltaFailureRepository extends JpaRepository<BalanceDeltaFailure, Long> {
+
+    /**
+     * Find the most recent failed balance deltas
+     * @param limit maximum number of failures to return
+     * @return the failures, newest first
+     */
+    List<BalanceDeltaFailure> findAllByOrderByIdDesc(Limit limit);
+}
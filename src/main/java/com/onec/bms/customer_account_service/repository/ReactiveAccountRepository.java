@@ -0,0 +1,88 @@
+package com.onec.bms.customer_account_service.repository;
+
+import com.onec.bms.customer_account_service.model.Account;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Non-blocking reads of the accounts table through R2DBC.
+ * Rows are mapped straight to detached Account instances; writes stay with AccountRepository.
+ */
+@Repository
+public class ReactiveAccountRepository {
+
+    private static final String SELECT_ACCOUNT = """
+            select account_number, account_type, account_status, account_balance_minor, account_currency,
+                   account_opening_date, account_closing_date, account_description, account_branch,
+                   account_customer_id, account_customer_name, account_customer_email, account_customer_phone,
+                   account_customer_address, account_customer_city, account_customer_state,
+                   account_customer_zip, version, last_modified
+            from accounts
+            """;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Find account by account number
+     * @param accountNumber the account number
+     * @return the account, or empty if not found
+     */
+    public Mono<Account> findByAccountNumber(String accountNumber) {
+        return databaseClient.sql(SELECT_ACCOUNT + "where account_number = :accountNumber")
+                .bind("accountNumber", accountNumber)
+                .map(ReactiveAccountRepository::toAccount)
+                .one();
+    }
+
+    /**
+     * Find all accounts for a specific customer, ordered by account number
+     * @param customerId the customer ID
+     */
+    public Flux<Account> findByAccountCustomerId(String customerId) {
+        return databaseClient.sql(SELECT_ACCOUNT + "where account_customer_id = :customerId order by account_number")
+                .bind("customerId", customerId)
+                .map(ReactiveAccountRepository::toAccount)
+                .all();
+    }
+
+    /**
+     * Stream every account ordered by account number.
+     * Rows are emitted as the subscriber requests them.
+     */
+    public Flux<Account> findAll() {
+        return databaseClient.sql(SELECT_ACCOUNT + "order by account_number")
+                .map(ReactiveAccountRepository::toAccount)
+                .all();
+    }
+
+    private static Account toAccount(Readable row) {
+        Account account = new Account(row.get("account_number", String.class),
+                row.get("account_type", String.class),
+                row.get("account_status", String.class),
+                null,
+                row.get("account_currency", String.class),
+                row.get("account_opening_date", String.class),
+                row.get("account_closing_date", String.class),
+                row.get("account_description", String.class),
+                row.get("account_branch", String.class),
+                row.get("account_customer_id", String.class),
+                row.get("account_customer_name", String.class),
+                row.get("account_customer_email", String.class),
+                row.get("account_customer_phone", String.class),
+                row.get("account_customer_address", String.class),
+                row.get("account_customer_city", String.class),
+                row.get("account_customer_state", String.class),
+                row.get("account_customer_zip", String.class));
+        account.setAccountBalanceMinor(row.get("account_balance_minor", Long.class));
+        account.setVersion(row.get("version", Long.class));
+        account.setLastModified(row.get("last_modified", OffsetDateTime.class).toInstant());
+        return account;
+    }
+}
@@ -0,0 +1,33 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.config.CacheConfig;
+import com.onec.bms.customer_account_service.config.FencedCaffeineCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops the cached lookup and encoded responses of an account once a change to it has been committed.
+ * Evicting before the commit would let a concurrent reader cache the old row again while the change
+ * is still in flight. A reader that loaded the old row before the commit but caches it after the
+ * eviction is turned away by the account cache itself, see {@link FencedCaffeineCache}; encoded
+ * responses are tagged with the version they encode and never served for another.
+ */
+@Component
+public class AccountCacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        for (String name : new String[] {CacheConfig.ACCOUNTS_CACHE, CacheConfig.ACCOUNT_PAYLOADS_CACHE}) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.evict(event.getAccountNumber());
+            }
+        }
+    }
+}
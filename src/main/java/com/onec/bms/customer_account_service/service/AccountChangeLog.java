@@ -0,0 +1,276 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.AccountChange;
+import com.onec.bms.customer_account_service.model.AccountChangeFeed;
+import com.onec.bms.customer_account_service.repository.AccountChangeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only log of committed account changes, so consumers can follow the accounts from a
+ * sequence number instead of re-reading them all.
+ * <p>
+ * Every {@link AccountChangedEvent} becomes a row written in the transaction of the change, so a
+ * change is logged exactly when it commits. Sequence numbers are assigned afterwards: the
+ * sequencer locks the account_change_sequencer row and numbers every committed change that has
+ * no number yet from the account_change_seq sequence. As one node at a time numbers changes, and
+ * only committed ones, numbers become visible in increasing order on every node, and a reader
+ * that has seen a sequence number has seen every change numbered before it. Nothing is locked
+ * while the write itself commits.
+ * <p>
+ * The sequencer runs after every commit that logged a change on this node, and on an interval to
+ * pick up changes committed on other nodes or left unnumbered by a failure. Readers long-poll:
+ * with nothing new they wait until the next changes are numbered or a timeout. The log is kept
+ * bounded by dropping changes older than the retention period, and compacted by dropping older
+ * changes an account has since superseded, so a reader that falls behind sees the latest change
+ * of each account rather than all of them.
+ */
+@Component
+public class AccountChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountChangeLog.class);
+
+    @Autowired
+    private AccountChangeRepository changeRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor executor;
+
+    @Value("${accounts.changes.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${accounts.changes.max-wait-ms:30000}")
+    private long maxWaitMillis;
+
+    @Value("${accounts.changes.retention-ms:604800000}")
+    private long retentionMillis;
+
+    @Value("${accounts.changes.compact-after-ms:3600000}")
+    private long compactAfterMillis;
+
+    private final AtomicLong lastCommitted = new AtomicLong();
+    private volatile long truncatedThrough;
+    private final AtomicBoolean sequencingRequested = new AtomicBoolean();
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    private record Waiter(long after, Integer limit, CompletableFuture<Optional<AccountChangeFeed>> feed) {
+    }
+
+    /**
+     * Asks for the changes of a transaction to be numbered once it has committed
+     */
+    private final class SequenceAfterCommit implements TransactionSynchronization {
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AccountChangeLog.this);
+            if (status == STATUS_COMMITTED) {
+                requestSequencing();
+            }
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        // Where retention and compaction left off is not kept, so assume the log begins
+        // where its oldest change is
+        Object[] range = changeRepository.findSequenceRange().get(0);
+        truncatedThrough = range[0] == null ? 0 : (Long) range[0] - 1;
+        sequence();
+        log.info("Account change log holds sequence numbers {} to {}", truncatedThrough + 1, lastCommitted.get());
+    }
+
+    /**
+     * Record a change in the transaction it was made in; a change made outside a transaction
+     * is recorded in one of its own
+     */
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> onAccountChanged(event));
+            return;
+        }
+        AccountChange change = new AccountChange(null, event.getAccountNumber(), event.getType().name(), Account.now());
+        entityManager.persist(change);
+        event.setChangeId(change.getId());
+        if (TransactionSynchronizationManager.getResource(this) == null) {
+            SequenceAfterCommit synchronization = new SequenceAfterCommit();
+            TransactionSynchronizationManager.bindResource(this, synchronization);
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        }
+    }
+
+    /**
+     * Number the committed changes on the task executor, once for any number of commits
+     * that ask while it is pending
+     */
+    private void requestSequencing() {
+        if (sequencingRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                sequencingRequested.set(false);
+                sequence();
+            });
+        }
+    }
+
+    /**
+     * Number the committed changes that have no sequence number yet, including those committed
+     * on other nodes, and wake the readers waiting for them
+     * @return sequence number of the last numbered change
+     */
+    @Scheduled(initialDelayString = "${accounts.changes.sequencing-interval-ms:1000}",
+            fixedDelayString = "${accounts.changes.sequencing-interval-ms:1000}")
+    public long sequence() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            changeRepository.lockSequencer();
+            changeRepository.assignSequences();
+        });
+        Long last = changeRepository.findLastSequence();
+        long committed = lastCommitted.accumulateAndGet(last == null ? 0 : last, Math::max);
+        if (!waiters.isEmpty()) {
+            wakeWaiters();
+        }
+        return committed;
+    }
+
+    /**
+     * Sequence number of the last committed change, where a reader that has just loaded every
+     * account can start following the log
+     */
+    public long getLastSequence() {
+        return lastCommitted.get();
+    }
+
+    /**
+     * Read the changes committed after a sequence number, waiting for one if there is none yet
+     * @param after the last sequence number the reader has seen, 0 to start at the beginning
+     * @param limit most changes to return, capped by the configured maximum; null for the maximum
+     * @param waitMillis how long to wait for a change, capped by the configured maximum; null for the maximum
+     * @return a future of the changes, completed with an empty feed if none was committed in time;
+     *         of an empty Optional if changes after the sequence number are no longer in the log
+     * @throws IllegalArgumentException if a parameter is negative, or the limit is zero
+     */
+    public CompletableFuture<Optional<AccountChangeFeed>> poll(long after, Integer limit, Long waitMillis) {
+        if (after < 0 || (limit != null && limit <= 0) || (waitMillis != null && waitMillis < 0)) {
+            throw new IllegalArgumentException("after and waitMs must not be negative, limit must be positive");
+        }
+        Optional<AccountChangeFeed> feed = read(after, limit);
+        long wait = waitMillis == null ? maxWaitMillis : Math.min(waitMillis, maxWaitMillis);
+        if (feed.isEmpty() || !feed.get().getChanges().isEmpty() || wait == 0) {
+            return CompletableFuture.completedFuture(feed);
+        }
+
+        Waiter waiter = new Waiter(after, limit, new CompletableFuture<>());
+        waiters.add(waiter);
+        waiter.feed().completeOnTimeout(feed, wait, TimeUnit.MILLISECONDS)
+                .whenComplete((result, e) -> waiters.remove(waiter));
+        // A commit between the read and adding the waiter did not see it
+        if (lastCommitted.get() > after) {
+            wake(waiter);
+        }
+        return waiter.feed();
+    }
+
+    /**
+     * The committed changes after a sequence number, without waiting
+     * @return empty if changes after the sequence number are no longer in the log, or it is
+     *         beyond the last committed change (the log was reset)
+     */
+    private Optional<AccountChangeFeed> read(long after, Integer limit) {
+        long committed = lastCommitted.get();
+        if (after < truncatedThrough || after > committed) {
+            return Optional.empty();
+        }
+        int size = limit == null ? maxPageSize : Math.min(limit, maxPageSize);
+        List<AccountChange> changes = after == committed ? List.of()
+                : changeRepository.findBySequenceBetweenOrderBySequence(after + 1, committed, Limit.of(size));
+        long next = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSequence();
+        return Optional.of(new AccountChangeFeed(changes, next));
+    }
+
+    private void wakeWaiters() {
+        long committed = lastCommitted.get();
+        for (Waiter waiter : waiters) {
+            if (waiter.after() < committed) {
+                wake(waiter);
+            }
+        }
+    }
+
+    private void wake(Waiter waiter) {
+        // Only one of the commit that wakes the waiter and its timeout answers it
+        if (waiters.remove(waiter)) {
+            try {
+                waiter.feed().complete(read(waiter.after(), waiter.limit()));
+            } catch (RuntimeException e) {
+                waiter.feed().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Drop changes older than the retention period, always keeping the latest so sequence numbers
+     * carry on after a restart, and changes older than the compaction delay that a later change
+     * of the same account supersedes
+     * @return number of changes dropped
+     */
+    @Scheduled(initialDelayString = "${accounts.changes.maintenance-interval-ms:60000}",
+            fixedDelayString = "${accounts.changes.maintenance-interval-ms:60000}")
+    public int compact() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Instant now = Instant.now();
+        int dropped = 0;
+
+        Long expired = changeRepository.findLastSequenceBefore(now.minusMillis(retentionMillis));
+        long latest = lastCommitted.get();
+        if (expired != null && Math.min(expired, latest - 1) > truncatedThrough) {
+            long through = Math.min(expired, latest - 1);
+            // Readers behind this point are turned away from here on rather than shown a gap
+            truncatedThrough = through;
+            dropped += transaction.execute(status -> changeRepository.deleteThrough(through));
+        }
+
+        Long compactable = changeRepository.findLastSequenceBefore(now.minusMillis(compactAfterMillis));
+        if (compactable != null) {
+            dropped += transaction.execute(status -> changeRepository.deleteSupersededThrough(compactable));
+        }
+        if (dropped > 0) {
+            log.info("Dropped {} expired or superseded account changes", dropped);
+        }
+        return dropped;
+    }
+}
@@ -0,0 +1,97 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.Account;
+
+/**
+ * Published by {@link AccountService} whenever an account is created, updated or deleted,
+ * so in-memory views of the accounts table can follow the changes once they are committed.
+ * Besides the account as written, the event carries the balance position of the account
+ * before and after the change, so aggregates can be adjusted without reading the row again.
+ */
+public class AccountChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final String accountNumber;
+    private final Account account;
+    private final BalancePosition previous;
+    private final BalancePosition current;
+    private Long changeId;
+
+    private AccountChangedEvent(Type type, String accountNumber, Account account,
+                                BalancePosition previous, BalancePosition current) {
+        this.type = type;
+        this.accountNumber = accountNumber;
+        this.account = account;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static AccountChangedEvent created(Account account) {
+        return new AccountChangedEvent(Type.CREATED, account.getAccountNumber(), account,
+                null, BalancePosition.of(account));
+    }
+
+    /**
+     * @param previous the balance position of the account as it was loaded, before it was changed
+     */
+    public static AccountChangedEvent updated(Account account, BalancePosition previous) {
+        return new AccountChangedEvent(Type.UPDATED, account.getAccountNumber(), account,
+                previous, BalancePosition.of(account));
+    }
+
+    /**
+     * Change applied in the database without loading the account, such as a balance delta
+     * or a bulk status change
+     */
+    public static AccountChangedEvent updatedInPlace(String accountNumber, BalancePosition previous,
+                                                     BalancePosition current) {
+        return new AccountChangedEvent(Type.UPDATED, accountNumber, null, previous, current);
+    }
+
+    public static AccountChangedEvent deleted(String accountNumber, BalancePosition previous) {
+        return new AccountChangedEvent(Type.DELETED, accountNumber, null, previous, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    /**
+     * The account as written, null for deletions and for updates made without loading it
+     */
+    public Account getAccount() {
+        return account;
+    }
+
+    /**
+     * Balance position before the change, null for creations
+     */
+    public BalancePosition getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Balance position after the change, null for deletions
+     */
+    public BalancePosition getCurrent() {
+        return current;
+    }
+
+    /**
+     * Key of the change log entry recording this change, written in the same transaction;
+     * null until {@link AccountChangeLog} has written it
+     */
+    public Long getChangeId() {
+        return changeId;
+    }
+
+    void setChangeId(Long changeId) {
+        this.changeId = changeId;
+    }
+}
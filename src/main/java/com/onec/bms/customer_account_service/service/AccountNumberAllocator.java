@@ -0,0 +1,91 @@
+package com.onec.bms.customer_account_service.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out account numbers without touching the accounts table.
+ * Numbers come in blocks reserved from the account_number_block_seq sequence, so
+ * every node owns its block exclusively; within a block a number is claimed with a
+ * single atomic increment and only the refill goes to the database.
+ */
+@Component
+public class AccountNumberAllocator {
+
+    /**
+     * Account numbers per reserved block.
+     * Block n covers (n - 1) * BLOCK_SIZE + 1 to n * BLOCK_SIZE, so changing this
+     * on an existing database would hand out numbers twice.
+     */
+    static final int BLOCK_SIZE = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(1, 0));
+
+    // A lock rather than synchronized: a virtual thread waiting on JDBC inside a
+    // synchronized block would pin its carrier thread
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    /**
+     * Allocate the next account number
+     * @return formatted account number, e.g. ACC-000042
+     */
+    public String nextAccountNumber() {
+        return format(next());
+    }
+
+    /**
+     * Allocate the next numeric account number
+     * @return account number without prefix
+     */
+    public long next() {
+        while (true) {
+            Block block = current.get();
+            long number = block.next.getAndIncrement();
+            if (number <= block.last) {
+                return number;
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * Format a numeric account number; grows past six digits when needed
+     */
+    public static String format(long number) {
+        return "ACC-" + String.format("%06d", number);
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            // Another thread may have refilled while this one waited for the lock
+            if (current.get() != exhausted) {
+                return;
+            }
+            Long blockNumber = jdbcTemplate.queryForObject(
+                    "select next value for account_number_block_seq", Long.class);
+            long first = (blockNumber - 1) * BLOCK_SIZE + 1;
+            current.set(new Block(first, first + BLOCK_SIZE - 1));
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long last;
+
+        private Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.Account;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one query. While an account or customer lookup is
+ * running, other callers asking for the same account number or customer ID wait for it and get
+ * its result, or its exception, instead of running the same query again. This matters most when
+ * a cache entry expires or is evicted under load and every request for it misses at once.
+ * Reads inside a transaction always run their own query, so they see the transaction's own
+ * writes, and a committed change makes later callers start a new query rather than join one
+ * that may have read the account before the change.
+ */
+@Component
+public class AccountReadCoalescer {
+
+    private final SingleFlight<String, Optional<Account>> accountFlights;
+    private final SingleFlight<String, List<Account>> customerFlights;
+
+    @Value("${accounts.read-coalescing.enabled:true}")
+    private boolean enabled;
+
+    public AccountReadCoalescer(@Value("${accounts.read-coalescing.max-wait-ms:2000}") long maxWaitMillis,
+                                MeterRegistry meterRegistry) {
+        accountFlights = new SingleFlight<>(maxWaitMillis);
+        customerFlights = new SingleFlight<>(maxWaitMillis);
+        FunctionCounter.builder("accounts.reads.coalesced", accountFlights, SingleFlight::shared)
+                .description("Reads answered with the result of an identical read already running")
+                .tag("lookup", "account")
+                .register(meterRegistry);
+        FunctionCounter.builder("accounts.reads.coalesced", customerFlights, SingleFlight::shared)
+                .description("Reads answered with the result of an identical read already running")
+                .tag("lookup", "customer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Look up an account, sharing the query with concurrent lookups of the same account
+     * @param accountNumber the account number
+     * @param query the lookup
+     * @return the result of this or a concurrent lookup
+     */
+    public Optional<Account> account(String accountNumber, Supplier<Optional<Account>> query) {
+        return coalesce(accountFlights, accountNumber, query);
+    }
+
+    /**
+     * Look up the accounts of a customer, sharing the query with concurrent lookups of the same customer
+     * @param customerId the customer ID
+     * @param query the lookup
+     * @return the result of this or a concurrent lookup, unmodifiable as it may be shared
+     */
+    public List<Account> customerAccounts(String customerId, Supplier<List<Account>> query) {
+        return coalesce(customerFlights, customerId, () -> List.copyOf(query.get()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        accountFlights.forget(event.getAccountNumber());
+        // The event does not say which customers the account belonged to before and after
+        customerFlights.forgetAll();
+    }
+
+    private <V> V coalesce(SingleFlight<String, V> flights, String key, Supplier<V> query) {
+        if (!enabled || key == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return query.get();
+        }
+        return flights.execute(key, query);
+    }
+}
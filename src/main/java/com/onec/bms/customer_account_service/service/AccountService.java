@@ -1,21 +1,149 @@
 package com.onec.bms.customer_account_service.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.AccountChangeFeed;
+import com.onec.bms.customer_account_service.model.AccountLookupItem;
+import com.onec.bms.customer_account_service.model.AccountLookupResult;
+import com.onec.bms.customer_account_service.model.AccountPage;
+import com.onec.bms.customer_account_service.model.AccountVersion;
+import com.onec.bms.customer_account_service.model.BalanceAggregate;
+import com.onec.bms.customer_account_service.model.BalanceDeltaFailure;
+import com.onec.bms.customer_account_service.model.Balances;
+import com.onec.bms.customer_account_service.model.BulkCreateResult;
+import com.onec.bms.customer_account_service.model.BulkItemResult;
+import com.onec.bms.customer_account_service.model.BulkStatusChange;
+import com.onec.bms.customer_account_service.model.BulkStatusResult;
+import com.onec.bms.customer_account_service.model.CustomerNames;
+import com.onec.bms.customer_account_service.model.ProjectedAccounts;
+import com.onec.bms.customer_account_service.config.CacheConfig;
+import com.onec.bms.customer_account_service.repository.AccountProjections;
 import com.onec.bms.customer_account_service.repository.AccountRepository;
+import com.onec.bms.customer_account_service.repository.BalanceDeltaFailureRepository;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 @Service
 public class AccountService {
 
+    /** Attributes backed by NOT NULL columns */
+    private static final List<String> REQUIRED_ATTRIBUTES = List.of("accountType", "accountStatus",
+            "accountBalanceMinor", "accountCurrency", "accountCustomerId", "accountCustomerName");
+
+    /** Status of a closed account; closing an account also records its closing date */
+    public static final String CLOSED = "CLOSED";
+
+    /** Text fields a merge patch may change */
+    private static final List<String> PATCHABLE_FIELDS = List.of("accountType", "accountStatus", "accountCurrency",
+            "accountOpeningDate", "accountClosingDate", "accountDescription", "accountBranch", "accountCustomerId",
+            "accountCustomerName", "accountCustomerEmail", "accountCustomerPhone", "accountCustomerAddress",
+            "accountCustomerCity", "accountCustomerState", "accountCustomerZip");
+
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private BalanceDeltaFailureRepository balanceDeltaFailureRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    private BalanceDeltaCoalescer balanceDeltaCoalescer;
+
+    @Autowired
+    private CustomerNameIndex customerNameIndex;
+
+    @Autowired
+    private BalanceAggregates balanceAggregates;
+
+    @Autowired
+    private AccountChangeLog accountChangeLog;
+
+    @Autowired
+    private AccountReadCoalescer readCoalescer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Value("${accounts.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${accounts.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${accounts.lookup.max-size:1000}")
+    private int maxLookupSize;
+
+    @Value("${accounts.lookup.chunk-size:100}")
+    private int lookupChunkSize;
+
+    @Value("${accounts.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    @Value("${accounts.balance.max-retries:10}")
+    private int balanceMaxRetries;
+
     /**
      * Get all accounts
      * @return List of all accounts
@@ -25,83 +153,629 @@ public class AccountService {
     }
 
     /**
-     * Get account by account number
+     * Get only some fields of all accounts, reading just their columns
+     * @param fields JSON property names of the fields to return
+     * @return the requested fields of every account, in Account property order
+     * @throws IllegalArgumentException if no field, or an unknown field, is requested
+     */
+    public List<Map<String, Object>> getAllAccounts(List<String> fields) {
+        return accountRepository.findFields(selectFields(fields), null);
+    }
+
+    /**
+     * Get one page of accounts ordered by account number.
+     * Seeks past the cursor instead of using an offset, so every page costs the same.
+     * @param cursor opaque cursor from the previous page, or null for the first page
+     * @param limit requested page size, clamped to the configured maximum
+     * @param accountType optional account type filter
+     * @param accountStatus optional account status filter
+     * @param branch optional branch filter
+     * @return the page, with a next cursor if more accounts follow
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public AccountPage getAccountPage(String cursor, Integer limit, String accountType,
+                                      String accountStatus, String branch) {
+        int pageSize = pageSize(limit);
+        String after = cursor == null || cursor.isEmpty() ? "" : decodeCursor(cursor);
+
+        // Fetch one extra row to find out whether another page exists
+        List<Account> accounts = accountRepository.findPageAfter(
+                after, accountType, accountStatus, branch, Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (accounts.size() > pageSize) {
+            accounts = accounts.subList(0, pageSize);
+            nextCursor = encodeCursor(accounts.get(pageSize - 1).getAccountNumber());
+        }
+        return new AccountPage(accounts, nextCursor, pageSize);
+    }
+
+    /**
+     * Write every account to the output stream as newline-delimited JSON.
+     * Rows are read through a database cursor and detached once written,
+     * so memory use does not grow with the size of the table.
+     * @param out the stream to write to (left open)
+     * @return number of accounts written
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public long exportAccounts(OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             SequenceWriter writer = objectMapper.writer()
+                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                     .withRootValueSeparator("\n")
+                     .writeValues(generator);
+             Stream<Account> accounts = accountRepository.streamAllAccounts()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            for (Account account : (Iterable<Account>) accounts::iterator) {
+                writer.write(account);
+                entityManager.detach(account);
+                count++;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get account by account number.
+     * Results, including misses, are cached until the account changes or the entry expires;
+     * concurrent misses for the same account share one query. A lookup that a change overtakes
+     * is returned but not cached.
+     * The returned account is shared with other callers and must not be modified.
      * @param accountNumber the account number
      * @return Optional containing the account if found
      */
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS_CACHE, key = "#accountNumber", sync = true)
     public Optional<Account> getAccountByNumber(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber);
+        return readCoalescer.account(accountNumber, () -> accountRepository.findByAccountNumber(accountNumber));
     }
 
     /**
-     * Get all accounts for a specific customer
+     * Look up many accounts at once.
+     * Cached accounts, and cached misses, are answered from the account cache; the rest are
+     * read with one IN query per chunk, the chunks running in parallel when there are several.
+     * Duplicates are looked up once.
+     * @param accountNumbers the account numbers
+     * @return one outcome per account number, in request order, with the misses listed
+     * @throws IllegalArgumentException if an account number is missing or there are too many
+     */
+    public AccountLookupResult lookupAccounts(List<String> accountNumbers) {
+        if (accountNumbers.size() > maxLookupSize) {
+            throw new IllegalArgumentException("At most " + maxLookupSize + " account numbers per lookup");
+        }
+
+        Cache cache = cacheManager.getCache(CacheConfig.ACCOUNTS_CACHE);
+        Map<String, Account> accounts = new HashMap<>();
+        Set<String> uncached = new LinkedHashSet<>();
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber == null || accountNumber.isEmpty()) {
+                throw new IllegalArgumentException("Account numbers must not be empty");
+            }
+            Cache.ValueWrapper cached = cache == null ? null : cache.get(accountNumber);
+            if (cached == null) {
+                uncached.add(accountNumber);
+            } else if (cached.get() != null) {
+                accounts.put(accountNumber, (Account) cached.get());
+            }
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> remaining = new ArrayList<>(uncached);
+        for (int from = 0; from < remaining.size(); from += lookupChunkSize) {
+            chunks.add(remaining.subList(from, Math.min(from + lookupChunkSize, remaining.size())));
+        }
+        for (Account account : findChunks(chunks)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+
+        AccountLookupResult result = new AccountLookupResult();
+        for (String accountNumber : accountNumbers) {
+            Account account = accounts.get(accountNumber);
+            result.add(account == null ? AccountLookupItem.notFound(accountNumber) : AccountLookupItem.found(account));
+        }
+        return result;
+    }
+
+    /**
+     * Run one IN query per chunk: a single chunk on the calling thread, several in parallel
+     */
+    private List<Account> findChunks(List<List<String>> chunks) {
+        if (chunks.size() <= 1) {
+            return chunks.isEmpty() ? List.of() : accountRepository.findByAccountNumberIn(chunks.get(0));
+        }
+        List<CompletableFuture<List<Account>>> queries = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> accountRepository.findByAccountNumberIn(chunk),
+                        taskExecutor))
+                .toList();
+        List<Account> accounts = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<Account>> query : queries) {
+                accounts.addAll(query.join());
+            }
+        } catch (CompletionException e) {
+            // Surface the query's own exception, e.g. an exhausted connection pool
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return accounts;
+    }
+
+    /**
+     * Get the version and modification time of an account without loading it.
+     * Answered from the account cache when the account is cached, from a projection otherwise.
+     * @param accountNumber the account number
+     * @return Optional containing the version if the account exists
+     */
+    public Optional<AccountVersion> getAccountVersion(String accountNumber) {
+        Cache accounts = cacheManager.getCache(CacheConfig.ACCOUNTS_CACHE);
+        Cache.ValueWrapper cached = accounts == null ? null : accounts.get(accountNumber);
+        if (cached != null) {
+            return Optional.ofNullable((Account) cached.get()).map(AccountVersion::of);
+        }
+        return accountRepository.findVersionByAccountNumber(accountNumber);
+    }
+
+    /**
+     * Get all accounts for a specific customer.
+     * Concurrent calls for the same customer share one query, so the list and its accounts
+     * may be shared with other callers and must not be modified.
      * @param customerId the customer ID
      * @return List of accounts for the customer
      */
     public List<Account> getAccountsByCustomerId(String customerId) {
-        return accountRepository.findByAccountCustomerId(customerId);
+        return readCoalescer.customerAccounts(customerId, () -> accountRepository.findByAccountCustomerId(customerId));
+    }
+
+    /**
+     * Fingerprint the accounts of a customer from their versions, without loading them.
+     * Matches {@link #fingerprint(List)} of the same accounts.
+     * @param customerId the customer ID
+     * @return Optional containing the fingerprint, empty if the customer has no accounts
+     */
+    public Optional<String> getCustomerAccountsFingerprint(String customerId) {
+        List<Object[]> versions = accountRepository.findVersionsByAccountCustomerId(customerId);
+        if (versions.isEmpty()) {
+            return Optional.empty();
+        }
+        StringBuilder text = new StringBuilder();
+        for (Object[] version : versions) {
+            appendFingerprint(text, (String) version[0], (Long) version[1], version[2]);
+        }
+        return Optional.of(DigestUtils.md5DigestAsHex(text.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Fingerprint a set of accounts. It changes whenever one of them is written, added or removed,
+     * and does not depend on the order they are given in.
+     * @param accounts the accounts
+     * @return hex digest of the account numbers, versions and modification times
+     */
+    public String fingerprint(List<Account> accounts) {
+        StringBuilder text = new StringBuilder();
+        accounts.stream()
+                .sorted(Comparator.comparing(Account::getAccountNumber))
+                .forEach(account -> appendFingerprint(text, account.getAccountNumber(), account.getVersion(),
+                        account.getLastModified()));
+        return DigestUtils.md5DigestAsHex(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendFingerprint(StringBuilder text, String accountNumber, Long version, Object lastModified) {
+        text.append(accountNumber).append(' ').append(version).append(' ').append(lastModified).append('\n');
+    }
+
+    /**
+     * Fingerprint the accounts of a customer in the shape that has only some fields, without loading them
+     * @param customerId the customer ID
+     * @param fields JSON property names of the fields; all of them if null or empty
+     * @return Optional containing the fingerprint, empty if the customer has no accounts
+     * @throws IllegalArgumentException if an unknown field is requested
+     */
+    public Optional<String> getCustomerAccountsFingerprint(String customerId, List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return getCustomerAccountsFingerprint(customerId);
+        }
+        List<String> selected = selectFields(fields);
+        return getCustomerAccountsFingerprint(customerId).map(fingerprint -> fingerprint(fingerprint, selected));
+    }
+
+    /**
+     * Get only some fields of a customer's accounts, reading just their columns
+     * @param customerId the customer ID
+     * @param fields JSON property names of the fields to return
+     * @return the requested fields of each account, in Account property order, and their fingerprint,
+     *         which matches {@link #getCustomerAccountsFingerprint(String, List)} for the same fields
+     * @throws IllegalArgumentException if no field, or an unknown field, is requested
+     */
+    public ProjectedAccounts getAccountsByCustomerId(String customerId, List<String> fields) {
+        List<String> selected = selectFields(fields);
+        // The fingerprint needs each account's number, version and modification time, requested or not
+        List<String> queried = new ArrayList<>(selected);
+        for (String validator : List.of("accountNumber", "version", "lastModified")) {
+            if (!queried.contains(validator)) {
+                queried.add(validator);
+            }
+        }
+        List<Map<String, Object>> accounts = accountRepository.findFields(queried, customerId);
+
+        StringBuilder text = new StringBuilder();
+        accounts.stream()
+                .sorted(Comparator.comparing(account -> (String) account.get("accountNumber")))
+                .forEach(account -> appendFingerprint(text, (String) account.get("accountNumber"),
+                        (Long) account.get("version"), account.get("lastModified")));
+        accounts.forEach(account -> account.keySet().retainAll(selected));
+        String fingerprint = DigestUtils.md5DigestAsHex(text.toString().getBytes(StandardCharsets.UTF_8));
+        return new ProjectedAccounts(accounts, fingerprint(fingerprint, selected));
+    }
+
+    /**
+     * The requested fields, deduplicated and in Account property order
+     * @throws IllegalArgumentException if no field, or an unknown field, is requested
+     */
+    private static List<String> selectFields(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        for (String field : fields) {
+            if (!AccountProjections.FIELDS.contains(field.trim())) {
+                throw new IllegalArgumentException("Unknown account field: " + field);
+            }
+        }
+        return AccountProjections.FIELDS.stream()
+                .filter(field -> fields.stream().anyMatch(requested -> requested.trim().equals(field)))
+                .toList();
+    }
+
+    /**
+     * Fingerprint of a list of accounts in the shape that has only the given fields,
+     * so a client holding one shape does not revalidate another
+     */
+    private static String fingerprint(String fingerprint, List<String> fields) {
+        return DigestUtils.md5DigestAsHex((fingerprint + " " + String.join(",", fields))
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Search accounts by customer name, ignoring case, accents and extra whitespace.
+     * Queries of three or more characters match anywhere in the name through the
+     * trigram index; shorter ones match the start of the name through the database index.
+     * @param name the search text
+     * @param limit requested number of accounts, clamped to the configured maximum page size
+     * @return matching accounts, best match first
+     */
+    public List<Account> searchAccountsByCustomerName(String name, Integer limit) {
+        String query = CustomerNames.normalize(name);
+        int size = pageSize(limit);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        if (query.length() < CustomerNameIndex.MIN_QUERY_LENGTH) {
+            return accountRepository.findByAccountCustomerNameNormalizedStartingWith(query,
+                    Sort.by("accountCustomerNameNormalized", "accountNumber"), Limit.of(size));
+        }
+        if (!customerNameIndex.isReady()) {
+            return accountRepository.findByAccountCustomerNameNormalizedContaining(query, Limit.of(size));
+        }
+
+        List<String> accountNumbers = customerNameIndex.search(query, size);
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllById(accountNumbers)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        List<Account> ranked = new ArrayList<>(accountNumbers.size());
+        for (String accountNumber : accountNumbers) {
+            Account account = accounts.get(accountNumber);
+            if (account != null) {
+                ranked.add(account);
+            }
+        }
+        return ranked;
     }
 
     /**
      * Create a new account
      * @param account the account to create
      * @return the created account
+     * @throws IllegalArgumentException if the currency does not have two fraction digits
      */
+    @Transactional
     public Account createAccount(Account account) {
         // Generate account number if not provided
         if (account.getAccountNumber() == null || account.getAccountNumber().isEmpty()) {
             account.setAccountNumber(generateAccountNumber());
         }
-        
-        // Set default values
+
+        applyCreateDefaults(account);
+        Balances.checkCurrency(account.getAccountCurrency());
+        Account created = accountRepository.save(account);
+        eventPublisher.publishEvent(AccountChangedEvent.created(created));
+        return created;
+    }
+
+    /**
+     * Create many accounts at once.
+     * Accounts are persisted in chunks with one transaction and one JDBC batch per chunk,
+     * clearing the persistence context in between. A chunk that fails is retried one
+     * account at a time so that only the offending accounts are reported as failed.
+     * An account that is well-formed JSON but cannot be bound is reported as failed and
+     * skipped. Reading stops at the first JSON syntax error; everything before it is kept.
+     * @param accounts the accounts to create, consumed lazily
+     * @return per-account results in request order
+     */
+    public BulkCreateResult createAccounts(Iterator<Account> accounts) {
+        BulkCreateResult result = new BulkCreateResult();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Account> chunk = new ArrayList<>(bulkChunkSize);
+        // Why each account of the chunk could not be read, null for the ones that were
+        List<String> unreadable = new ArrayList<>(bulkChunkSize);
+        int index = 0;
+
+        while (true) {
+            Account account = null;
+            String error = null;
+            try {
+                if (!accounts.hasNext()) {
+                    break;
+                }
+                account = accounts.next();
+            } catch (RuntimeJsonMappingException e) {
+                // The parser skips the rest of this account and carries on with the next one
+                error = "Malformed account: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            } catch (RuntimeException e) {
+                createChunk(chunk, unreadable, index - chunk.size(), result, transaction);
+                result.add(BulkItemResult.failed(index, null,
+                        "Malformed account: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                return result;
+            }
+
+            chunk.add(account);
+            unreadable.add(error);
+            index++;
+            if (chunk.size() == bulkChunkSize) {
+                createChunk(chunk, unreadable, index - chunk.size(), result, transaction);
+                chunk.clear();
+                unreadable.clear();
+            }
+        }
+
+        createChunk(chunk, unreadable, index - chunk.size(), result, transaction);
+        return result;
+    }
+
+    /**
+     * Validate, default and persist one chunk of a bulk request
+     */
+    private void createChunk(List<Account> chunk, List<String> unreadable, int firstIndex,
+                             BulkCreateResult result, TransactionTemplate transaction) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        BulkItemResult[] outcomes = new BulkItemResult[chunk.size()];
+        List<Integer> valid = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Account account = chunk.get(i);
+            String error = unreadable.get(i) != null ? unreadable.get(i) : validateForCreate(account);
+            if (error != null) {
+                outcomes[i] = BulkItemResult.failed(firstIndex + i,
+                        account == null ? null : account.getAccountNumber(), error);
+                continue;
+            }
+
+            // Numbers come from the allocator's in-memory block, not one query per account
+            if (account.getAccountNumber() == null || account.getAccountNumber().isEmpty()) {
+                account.setAccountNumber(generateAccountNumber());
+            }
+            applyCreateDefaults(account);
+            valid.add(i);
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> {
+                for (int i : valid) {
+                    entityManager.persist(chunk.get(i));
+                }
+                entityManager.flush();
+                for (int i : valid) {
+                    eventPublisher.publishEvent(AccountChangedEvent.created(chunk.get(i)));
+                }
+            });
+            for (int i : valid) {
+                outcomes[i] = BulkItemResult.created(firstIndex + i, chunk.get(i).getAccountNumber());
+            }
+        } catch (RuntimeException chunkFailure) {
+            entityManager.clear();
+            for (int i : valid) {
+                Account account = chunk.get(i);
+                // The rolled back persist left a version behind, which would mark the account as detached
+                account.setVersion(null);
+                try {
+                    transaction.executeWithoutResult(status -> {
+                        entityManager.persist(account);
+                        entityManager.flush();
+                        eventPublisher.publishEvent(AccountChangedEvent.created(account));
+                    });
+                    outcomes[i] = BulkItemResult.created(firstIndex + i, account.getAccountNumber());
+                } catch (RuntimeException e) {
+                    outcomes[i] = BulkItemResult.failed(firstIndex + i, account.getAccountNumber(),
+                            NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                } finally {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            entityManager.clear();
+        }
+
+        for (BulkItemResult outcome : outcomes) {
+            result.add(outcome);
+        }
+    }
+
+    /**
+     * Check the fields a new account cannot be stored without
+     * @return the validation error, or null if the account is valid
+     */
+    private String validateForCreate(Account account) {
+        if (account == null) {
+            return "account is required";
+        }
+        if (account.getAccountType() == null || account.getAccountType().isEmpty()) {
+            return "accountType is required";
+        }
+        if (account.getAccountBalanceMinor() == null) {
+            return "accountBalance is required";
+        }
+        if (account.getAccountCustomerId() == null || account.getAccountCustomerId().isEmpty()) {
+            return "accountCustomerId is required";
+        }
+        if (account.getAccountCustomerName() == null || account.getAccountCustomerName().isEmpty()) {
+            return "accountCustomerName is required";
+        }
+        if (account.getAccountCurrency() != null && !account.getAccountCurrency().isEmpty()) {
+            try {
+                Balances.checkCurrency(account.getAccountCurrency());
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fill in the default status, opening date and currency of a new account
+     */
+    private void applyCreateDefaults(Account account) {
         if (account.getAccountStatus() == null || account.getAccountStatus().isEmpty()) {
             account.setAccountStatus("ACTIVE");
         }
-        
+
         if (account.getAccountOpeningDate() == null || account.getAccountOpeningDate().isEmpty()) {
             account.setAccountOpeningDate(LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE));
         }
-        
+
         if (account.getAccountCurrency() == null || account.getAccountCurrency().isEmpty()) {
             account.setAccountCurrency("USD");
         }
-        
-        return accountRepository.save(account);
     }
 
     /**
-     * Update an existing account
+     * Update an existing account, replacing every field except the account number and opening date.
+     * Runs as one UPDATE statement without reading the account first.
      * @param accountNumber the account number
      * @param updatedAccount the updated account data
      * @return Optional containing the updated account if found
+     * @throws IllegalArgumentException if a required field is missing
      */
+    @Transactional
     public Optional<Account> updateAccount(String accountNumber, Account updatedAccount) {
-        Optional<Account> existingAccount = accountRepository.findByAccountNumber(accountNumber);
-        
-        if (existingAccount.isPresent()) {
-            Account account = existingAccount.get();
-            
-            // Update fields (preserve account number)
-            account.setAccountType(updatedAccount.getAccountType());
-            account.setAccountStatus(updatedAccount.getAccountStatus());
-            account.setAccountBalance(updatedAccount.getAccountBalance());
-            account.setAccountCurrency(updatedAccount.getAccountCurrency());
-            account.setAccountClosingDate(updatedAccount.getAccountClosingDate());
-            account.setAccountDescription(updatedAccount.getAccountDescription());
-            account.setAccountBranch(updatedAccount.getAccountBranch());
-            account.setAccountCustomerId(updatedAccount.getAccountCustomerId());
-            account.setAccountCustomerName(updatedAccount.getAccountCustomerName());
-            account.setAccountCustomerEmail(updatedAccount.getAccountCustomerEmail());
-            account.setAccountCustomerPhone(updatedAccount.getAccountCustomerPhone());
-            account.setAccountCustomerAddress(updatedAccount.getAccountCustomerAddress());
-            account.setAccountCustomerCity(updatedAccount.getAccountCustomerCity());
-            account.setAccountCustomerState(updatedAccount.getAccountCustomerState());
-            account.setAccountCustomerZip(updatedAccount.getAccountCustomerZip());
-            
-            return Optional.of(accountRepository.save(account));
+        return updateAccount(accountNumber, updatedAccount, null);
+    }
+
+    /**
+     * Update an existing account if it is still in the expected state
+     * @param accountNumber the account number
+     * @param updatedAccount the updated account data
+     * @param expected version, and optionally modification time, the account must be at; null for any
+     * @return Optional containing the updated account if found
+     * @throws IllegalArgumentException if a required field is missing
+     * @throws OptimisticLockingFailureException if the account is no longer in the expected state
+     */
+    @Transactional
+    public Optional<Account> updateAccount(String accountNumber, Account updatedAccount, AccountVersion expected) {
+        // Update fields (preserve account number)
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("accountType", updatedAccount.getAccountType());
+        changes.put("accountStatus", updatedAccount.getAccountStatus());
+        changes.put("accountBalanceMinor", updatedAccount.getAccountBalanceMinor());
+        changes.put("accountCurrency", updatedAccount.getAccountCurrency());
+        changes.put("accountClosingDate", updatedAccount.getAccountClosingDate());
+        changes.put("accountDescription", updatedAccount.getAccountDescription());
+        changes.put("accountBranch", updatedAccount.getAccountBranch());
+        changes.put("accountCustomerId", updatedAccount.getAccountCustomerId());
+        changes.put("accountCustomerName", updatedAccount.getAccountCustomerName());
+        changes.put("accountCustomerEmail", updatedAccount.getAccountCustomerEmail());
+        changes.put("accountCustomerPhone", updatedAccount.getAccountCustomerPhone());
+        changes.put("accountCustomerAddress", updatedAccount.getAccountCustomerAddress());
+        changes.put("accountCustomerCity", updatedAccount.getAccountCustomerCity());
+        changes.put("accountCustomerState", updatedAccount.getAccountCustomerState());
+        changes.put("accountCustomerZip", updatedAccount.getAccountCustomerZip());
+        return updateColumns(accountNumber, changes, expected);
+    }
+
+    /**
+     * Apply a JSON Merge Patch (RFC 7396) to an account: only the fields present are changed,
+     * and a field set to null is cleared. A version field makes the update conditional on
+     * the account still being at that version.
+     * @param accountNumber the account number
+     * @param patch the merge patch document
+     * @return Optional containing the updated account if found
+     * @throws IllegalArgumentException if a field is unknown, read-only or has an invalid value
+     * @throws OptimisticLockingFailureException if the account is no longer at the given version
+     */
+    @Transactional
+    public Optional<Account> patchAccount(String accountNumber, Map<String, Object> patch) {
+        return patchAccount(accountNumber, patch, null);
+    }
+
+    /**
+     * Apply a JSON Merge Patch to an account if it is still in the expected state
+     * @param accountNumber the account number
+     * @param patch the merge patch document
+     * @param expected version, and optionally modification time, the account must be at; null for any
+     * @return Optional containing the updated account if found
+     * @throws IllegalArgumentException if a field is unknown, read-only or has an invalid value
+     * @throws OptimisticLockingFailureException if the account is no longer in the expected state,
+     *         or the patch names a different version than expected
+     */
+    @Transactional
+    public Optional<Account> patchAccount(String accountNumber, Map<String, Object> patch, AccountVersion expected) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : patch.entrySet()) {
+            Object value = field.getValue();
+            switch (field.getKey()) {
+                case "accountNumber" -> {
+                    if (!accountNumber.equals(value)) {
+                        throw new IllegalArgumentException("accountNumber cannot be changed");
+                    }
+                }
+                case "version" -> {
+                    if (!(value instanceof Number version)) {
+                        throw new IllegalArgumentException("version must be a number");
+                    }
+                    if (expected == null) {
+                        expected = new AccountVersion(version.longValue(), null);
+                    } else if (expected.version() != version.longValue()) {
+                        throw new OptimisticLockingFailureException("Account " + accountNumber
+                                + " cannot be at version " + version + " and " + expected.version());
+                    }
+                }
+                case "accountBalance" -> changes.put("accountBalanceMinor",
+                        value == null ? null : Balances.parse(value.toString()));
+                default -> {
+                    if (!PATCHABLE_FIELDS.contains(field.getKey())) {
+                        throw new IllegalArgumentException("Unknown or read-only field: " + field.getKey());
+                    }
+                    if (value != null && !(value instanceof String)) {
+                        throw new IllegalArgumentException(field.getKey() + " must be a string");
+                    }
+                    changes.put(field.getKey(), value);
+                }
+            }
         }
-        
-        return Optional.empty();
+
+        if (changes.isEmpty()) {
+            Optional<Account> account = accountRepository.findByAccountNumber(accountNumber);
+            if (expected != null && account.isPresent() && !matches(expected, account.get())) {
+                throw new OptimisticLockingFailureException("Account " + accountNumber + " is no longer at version "
+                        + expected.version());
+            }
+            return account;
+        }
+        return updateColumns(accountNumber, changes, expected);
     }
 
     /**
@@ -110,15 +784,9 @@ public class AccountService {
      * @param status the new status
      * @return Optional containing the updated account if found
      */
+    @Transactional
     public Optional<Account> updateAccountStatus(String accountNumber, String status) {
-        Optional<Account> account = accountRepository.findByAccountNumber(accountNumber);
-        
-        if (account.isPresent()) {
-            account.get().setAccountStatus(status);
-            return Optional.of(accountRepository.save(account.get()));
-        }
-        
-        return Optional.empty();
+        return updateColumns(accountNumber, Map.of("accountStatus", status), null);
     }
 
     /**
@@ -126,29 +794,273 @@ public class AccountService {
      * @param accountNumber the account number
      * @param balance the new balance
      * @return Optional containing the updated account if found
+     * @throws IllegalArgumentException if the balance is not a valid amount
      */
+    @Transactional
     public Optional<Account> updateAccountBalance(String accountNumber, String balance) {
-        Optional<Account> account = accountRepository.findByAccountNumber(accountNumber);
-        
-        if (account.isPresent()) {
-            account.get().setAccountBalance(balance);
-            return Optional.of(accountRepository.save(account.get()));
+        return updateColumns(accountNumber, Map.of("accountBalanceMinor", Balances.parse(balance)), null);
+    }
+
+    /**
+     * Credit an account
+     * @param accountNumber the account number
+     * @param amountMinor the positive amount to add, in minor units
+     * @return Optional containing the updated account if found
+     */
+    public Optional<Account> creditAccount(String accountNumber, long amountMinor) {
+        return applyBalanceDelta(accountNumber, amountMinor);
+    }
+
+    /**
+     * Debit an account
+     * @param accountNumber the account number
+     * @param amountMinor the positive amount to subtract, in minor units
+     * @return Optional containing the updated account if found
+     */
+    public Optional<Account> debitAccount(String accountNumber, long amountMinor) {
+        return applyBalanceDelta(accountNumber, -amountMinor);
+    }
+
+    /**
+     * Add a signed delta to the balance of an account.
+     * Concurrent changes are detected through the account version; the update is
+     * retried on a fresh copy of the account until it wins or retries run out.
+     * @param accountNumber the account number
+     * @param deltaMinor the signed amount to add, in minor units
+     * @return Optional containing the updated account if found
+     * @throws OptimisticLockingFailureException if every retry lost to a concurrent update
+     */
+    public Optional<Account> applyBalanceDelta(String accountNumber, long deltaMinor) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> {
+                    Optional<Account> account = accountRepository.findByAccountNumber(accountNumber);
+                    return account.map(a -> {
+                        BalancePosition previous = BalancePosition.of(a);
+                        a.setAccountBalanceMinor(Math.addExact(a.getAccountBalanceMinor(), deltaMinor));
+                        return saveUpdated(a, previous);
+                    });
+                });
+            } catch (OptimisticLockingFailureException e) {
+                // Drop the stale copy so the next attempt reads the current version
+                entityManager.clear();
+                if (attempt >= balanceMaxRetries) {
+                    throw e;
+                }
+            }
         }
-        
-        return Optional.empty();
     }
 
     /**
-     * Delete an account
+     * Add a signed delta to the balance of an account in a single UPDATE statement,
+     * without reading the account first
+     * @param accountNumber the account number
+     * @param deltaMinor the signed amount to add, in minor units
+     * @return true if the account was updated, false if not found
+     */
+    @Transactional
+    public boolean addToBalance(String accountNumber, long deltaMinor) {
+        List<Object[]> updated = accountRepository.addToBalance(accountNumber, deltaMinor, Account.now());
+        if (updated.isEmpty()) {
+            return false;
+        }
+        Object[] row = updated.get(0);
+        BalancePosition current = new BalancePosition((String) row[0], (String) row[1], (String) row[2],
+                (String) row[3], ((Number) row[4]).longValue());
+        BalancePosition previous = new BalancePosition(current.branch(), current.currency(), current.type(),
+                current.status(), current.balanceMinor() - deltaMinor);
+        eventPublisher.publishEvent(AccountChangedEvent.updatedInPlace(accountNumber, previous, current));
+        return true;
+    }
+
+    /**
+     * Whether balance deltas are coalesced instead of applied immediately
+     * @return true if coalescing mode is enabled
+     */
+    public boolean isBalanceCoalescingEnabled() {
+        return balanceDeltaCoalescer.isEnabled();
+    }
+
+    /**
+     * Queue a balance delta to be folded into the next coalesced update of the account
+     * @param accountNumber the account number
+     * @param deltaMinor the signed amount to add, in minor units
+     * @return true if the account exists and the delta was queued, false if not found
+     */
+    public boolean submitBalanceDelta(String accountNumber, long deltaMinor) {
+        if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            return false;
+        }
+        balanceDeltaCoalescer.add(accountNumber, deltaMinor);
+        return true;
+    }
+
+    /**
+     * Get the coalesced balance deltas that were accepted but could not be applied
+     * @param limit requested number of failures, clamped to the configured maximum page size
+     * @return the failures, newest first
+     */
+    public List<BalanceDeltaFailure> getFailedBalanceDeltas(Integer limit) {
+        return balanceDeltaFailureRepository.findAllByOrderByIdDesc(Limit.of(pageSize(limit)));
+    }
+
+    /**
+     * Parse a credit or debit amount
+     * @param amount the amount as sent by the client
+     * @return the amount in minor units
+     * @throws IllegalArgumentException if the amount is not a positive number with at most two fraction digits
+     */
+    public long parseAmount(String amount) {
+        long minorUnits = Balances.parse(amount);
+        if (minorUnits <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + amount);
+        }
+        return minorUnits;
+    }
+
+    /**
+     * Get the accounts of a branch whose balance lies in a range, largest balance first
+     * @param branch the branch name
+     * @param minBalance optional lower bound (inclusive)
+     * @param maxBalance optional upper bound (inclusive)
+     * @param limit requested number of accounts, clamped to the configured maximum page size
+     * @return matching accounts
+     * @throws IllegalArgumentException if a bound is not a valid amount
+     */
+    public List<Account> getAccountsByBalanceRange(String branch, String minBalance, String maxBalance,
+                                                   Integer limit) {
+        long min = minBalance == null || minBalance.isEmpty() ? Long.MIN_VALUE : Balances.parse(minBalance);
+        long max = maxBalance == null || maxBalance.isEmpty() ? Long.MAX_VALUE : Balances.parse(maxBalance);
+        return accountRepository.findByBranchAndBalanceRange(branch, min, max, Limit.of(pageSize(limit)));
+    }
+
+    /**
+     * Follow the account change log: the changes committed after a sequence number, oldest first,
+     * waiting for one if there is none yet
+     * @param after the last sequence number the caller has seen, 0 to start at the beginning
+     * @param limit most changes to return, capped by the configured maximum; null for the maximum
+     * @param waitMillis how long to wait for a change, capped by the configured maximum; null for the maximum
+     * @return a future of the changes, of an empty Optional if changes after the sequence number
+     *         are no longer in the log
+     * @throws IllegalArgumentException if a parameter is negative, or the limit is zero
+     */
+    public CompletableFuture<Optional<AccountChangeFeed>> getChanges(long after, Integer limit, Long waitMillis) {
+        return accountChangeLog.poll(after, limit, waitMillis);
+    }
+
+    /**
+     * Sequence number of the last committed account change
+     * @return where to follow the change log from after loading every account
+     */
+    public long getLastChangeSequence() {
+        return accountChangeLog.getLastSequence();
+    }
+
+    /**
+     * Get account counts and balance totals, maintained incrementally instead of scanning the table
+     * @param groupBy dimensions to group by (branch, currency, type, status); all of them if empty.
+     *                The currency is always grouped by.
+     * @return one aggregate per group
+     * @throws IllegalArgumentException if a dimension is unknown
+     */
+    public List<BalanceAggregate> getBalanceAggregates(List<String> groupBy) {
+        Set<String> dimensions = new HashSet<>(groupBy == null || groupBy.isEmpty()
+                ? BalanceAggregates.DIMENSIONS : groupBy);
+        return balanceAggregates.query(dimensions);
+    }
+
+    /**
+     * Move a set of accounts to a status: every account of a branch, of a customer, or in a list.
+     * Runs one set-based UPDATE, and one transaction, per chunk of accounts; accounts already
+     * in the status are left alone. Closing accounts also sets today as their closing date
+     * where none is set.
+     * @param change the new status and the selection of accounts
+     * @return how many accounts were changed, and which listed accounts were not
+     * @throws IllegalArgumentException if the status is missing or not exactly one selection is given
+     */
+    public BulkStatusResult changeStatus(BulkStatusChange change) {
+        String status = change.getStatus();
+        if (status == null || status.isEmpty()) {
+            throw new IllegalArgumentException("status is required");
+        }
+        int selections = (change.getBranch() == null ? 0 : 1) + (change.getCustomerId() == null ? 0 : 1)
+                + (change.getAccountNumbers() == null ? 0 : 1);
+        if (selections != 1) {
+            throw new IllegalArgumentException("Select accounts by exactly one of branch, customerId or accountNumbers");
+        }
+        String closingDate = CLOSED.equals(status) ? LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE) : null;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        BulkStatusResult result = new BulkStatusResult(status);
+
+        if (change.getAccountNumbers() != null) {
+            List<String> accountNumbers = new ArrayList<>(new LinkedHashSet<>(change.getAccountNumbers()));
+            Set<String> changed = new HashSet<>();
+            for (int from = 0; from < accountNumbers.size(); from += bulkChunkSize) {
+                List<String> chunk = accountNumbers.subList(from, Math.min(from + bulkChunkSize, accountNumbers.size()));
+                changed.addAll(changeStatusChunk(transaction, "accountNumber", chunk, status, closingDate));
+            }
+            result.setUpdated(changed.size());
+            for (String accountNumber : change.getAccountNumbers()) {
+                if (!changed.contains(accountNumber)) {
+                    result.getNotUpdated().add(accountNumber);
+                }
+            }
+            return result;
+        }
+
+        // Changed accounts drop out of the selection, so each chunk picks up where the last one ended
+        String filter = change.getBranch() != null ? "accountBranch" : "accountCustomerId";
+        String value = change.getBranch() != null ? change.getBranch() : change.getCustomerId();
+        int updated = 0;
+        List<String> changed;
+        do {
+            changed = changeStatusChunk(transaction, filter, value, status, closingDate);
+            updated += changed.size();
+        } while (changed.size() == bulkChunkSize);
+        result.setUpdated(updated);
+        return result;
+    }
+
+    /**
+     * Change the status of one chunk of accounts in its own transaction and announce every change
+     * @return account numbers of the changed accounts
+     */
+    private List<String> changeStatusChunk(TransactionTemplate transaction, String filter, Object value,
+                                           String status, String closingDate) {
+        return transaction.execute(tx -> {
+            List<Object[]> rows = accountRepository.updateStatusWhere(filter, value, status, closingDate,
+                    Account.now(), bulkChunkSize);
+            List<String> changed = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                String accountNumber = (String) row[0];
+                BalancePosition previous = new BalancePosition((String) row[1], (String) row[2], (String) row[3],
+                        (String) row[4], ((Number) row[5]).longValue());
+                BalancePosition current = new BalancePosition(previous.branch(), previous.currency(),
+                        previous.type(), status, previous.balanceMinor());
+                eventPublisher.publishEvent(AccountChangedEvent.updatedInPlace(accountNumber, previous, current));
+                changed.add(accountNumber);
+            }
+            return changed;
+        });
+    }
+
+    /**
+     * Delete an account in a single DELETE statement, without reading it first
      * @param accountNumber the account number
      * @return true if account was deleted, false if not found
      */
+    @Transactional
     public boolean deleteAccount(String accountNumber) {
-        if (accountRepository.existsByAccountNumber(accountNumber)) {
-            accountRepository.deleteByAccountNumber(accountNumber);
-            return true;
+        List<Object[]> deleted = accountRepository.deleteByAccountNumber(accountNumber);
+        if (deleted.isEmpty()) {
+            return false;
         }
-        return false;
+        Object[] row = deleted.get(0);
+        BalancePosition previous = new BalancePosition((String) row[0], (String) row[1], (String) row[2],
+                (String) row[3], ((Number) row[4]).longValue());
+        eventPublisher.publishEvent(AccountChangedEvent.deleted(accountNumber, previous));
+        return true;
     }
 
     /**
@@ -160,36 +1072,116 @@ public class AccountService {
         return accountRepository.existsByAccountNumber(accountNumber);
     }
 
+    /**
+     * Write the given attributes and the modification time in one UPDATE statement and announce
+     * the change. The statement returns the row as it was before, so the updated account is
+     * rebuilt from it without another query.
+     * @return Optional containing the updated account if found
+     */
+    private Optional<Account> updateColumns(String accountNumber, Map<String, Object> changes, AccountVersion expected) {
+        for (String attribute : REQUIRED_ATTRIBUTES) {
+            if (changes.containsKey(attribute) && changes.get(attribute) == null) {
+                throw new IllegalArgumentException(attribute + " is required");
+            }
+        }
+        if (changes.get("accountCurrency") != null) {
+            Balances.checkCurrency((String) changes.get("accountCurrency"));
+        }
+        Map<String, Object> columns = new LinkedHashMap<>(changes);
+        columns.put("lastModified", Account.now());
+
+        Optional<Account> before = accountRepository.updateColumns(accountNumber, columns, expected);
+        if (before.isEmpty()) {
+            if (expected != null && accountRepository.existsByAccountNumber(accountNumber)) {
+                throw new OptimisticLockingFailureException("Account " + accountNumber + " is no longer at version "
+                        + expected.version());
+            }
+            return Optional.empty();
+        }
+
+        Account account = before.get();
+        BalancePosition previous = BalancePosition.of(account);
+        BeanWrapper wrapper = new BeanWrapperImpl(account);
+        columns.forEach(wrapper::setPropertyValue);
+        account.setVersion(account.getVersion() + 1);
+        eventPublisher.publishEvent(AccountChangedEvent.updated(account, previous));
+        return Optional.of(account);
+    }
+
+    /**
+     * Whether an account is at the expected version and, if one is given, modification time
+     */
+    private static boolean matches(AccountVersion expected, Account account) {
+        return expected.version().equals(account.getVersion())
+                && (expected.lastModified() == null || expected.lastModified().equals(account.getLastModified()));
+    }
+
+    /**
+     * Save a changed account and announce the change
+     * @param previous balance position of the account before it was changed
+     */
+    private Account saveUpdated(Account account, BalancePosition previous) {
+        Account saved = accountRepository.save(account);
+        eventPublisher.publishEvent(AccountChangedEvent.updated(saved, previous));
+        return saved;
+    }
+
+    /**
+     * Clamp a requested page size to the configured bounds
+     */
+    private int pageSize(Integer limit) {
+        return limit == null || limit < 1 ? defaultPageSize : Math.min(limit, maxPageSize);
+    }
+
     /**
      * Generate a unique account number
      * @return generated account number
      */
     private String generateAccountNumber() {
-        long count = accountRepository.count();
-        return "ACC-" + String.format("%06d", count + 1);
+        return accountNumberAllocator.nextAccountNumber();
+    }
+
+    private String encodeCursor(String accountNumber) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(accountNumber.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeCursor(String cursor) {
+        String accountNumber;
+        try {
+            accountNumber = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+        }
+        // Only cursors this service could have issued: no padding, stray bits or broken UTF-8
+        if (!encodeCursor(accountNumber).equals(cursor)) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        }
+        return accountNumber;
     }
 
     /**
      * Initialize sample data
+     * Account numbers come from the allocator so later creates cannot collide with them.
      */
     public void initializeSampleData() {
         if (accountRepository.count() == 0) {
             Account account1 = new Account(
-                    "ACC-000001", "SAVINGS", "ACTIVE", "5000.00", "USD",
+                    null, "SAVINGS", "ACTIVE", "5000.00", "USD",
                     "2024-01-15", null, "Primary savings account", "MAIN_BRANCH",
                     "CUST-001", "John Doe", "john.doe@email.com", "+1-555-123-4567",
                     "123 Main St", "New York", "NY", "10001"
             );
             
             Account account2 = new Account(
-                    "ACC-000002", "CHECKING", "ACTIVE", "2500.00", "USD",
+                    null, "CHECKING", "ACTIVE", "2500.00", "USD",
                     "2024-02-20", null, "Business checking account", "DOWNTOWN_BRANCH",
                     "CUST-002", "Jane Smith", "jane.smith@email.com", "+1-555-987-6543",
                     "456 Oak Ave", "Los Angeles", "CA", "90210"
             );
             
-            accountRepository.save(account1);
-            accountRepository.save(account2);
+            createAccount(account1);
+            createAccount(account2);
         }
     }
 }
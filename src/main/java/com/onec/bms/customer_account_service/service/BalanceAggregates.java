@@ -0,0 +1,374 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.BalanceAggregate;
+import com.onec.bms.customer_account_service.model.Balances;
+import com.onec.bms.customer_account_service.repository.AccountChangeRepository;
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Account counts and balance totals per branch, currency, type and status, kept in memory.
+ * The totals are loaded once at startup and then adjusted from the before and after
+ * balance positions carried by every {@link AccountChangedEvent}, so a query only rolls up
+ * the handful of groups instead of scanning the accounts table.
+ * A periodic reconciliation recomputes the totals from the table and repairs any drift.
+ * Changes committing while the table is scanned are accounted for, see {@link #recompute}.
+ */
+@Component
+public class BalanceAggregates {
+
+    /** Dimensions the totals can be grouped by; the currency is always included */
+    public static final List<String> DIMENSIONS = List.of("branch", "currency", "type", "status");
+
+    /** Change log keys looked up per query when correcting a recompute */
+    private static final int LOG_CHECK_CHUNK = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceAggregates.class);
+
+    private static final Comparator<String> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<Group> GROUP_ORDER = Comparator.comparing(Group::branch, NULLS_FIRST)
+            .thenComparing(Group::currency, NULLS_FIRST)
+            .thenComparing(Group::type, NULLS_FIRST)
+            .thenComparing(Group::status, NULLS_FIRST);
+
+    private record Group(String branch, String currency, String type, String status) {
+
+        static Group of(BalancePosition position) {
+            return new Group(position.branch(), position.currency(), position.type(), position.status());
+        }
+
+        Group rollUp(Set<String> dimensions) {
+            return new Group(dimensions.contains("branch") ? branch : null, currency,
+                    dimensions.contains("type") ? type : null, dimensions.contains("status") ? status : null);
+        }
+    }
+
+    private static final class Totals {
+        long accounts;
+        long balanceMinor;
+
+        Totals(long accounts, long balanceMinor) {
+            this.accounts = accounts;
+            this.balanceMinor = balanceMinor;
+        }
+
+        boolean matches(Totals other) {
+            return other != null && accounts == other.accounts && balanceMinor == other.balanceMinor;
+        }
+
+        @Override
+        public String toString() {
+            return accounts + " accounts, " + Balances.format(balanceMinor);
+        }
+    }
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountChangeRepository changeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One recompute at a time, so only one records the changes applied while it scans
+    private final ReentrantLock recomputing = new ReentrantLock();
+    private final Counter driftCounter;
+
+    private Map<Group, Totals> groups = new HashMap<>();
+    /** Transactions that have started to commit and whose changes are not applied yet */
+    private final Set<CommittingChanges> committing = new HashSet<>();
+    /** Changes applied since the running recompute started; null when none is running */
+    private List<AccountChangedEvent> appliedDuringRecompute;
+    private volatile boolean ready;
+
+    /**
+     * The changes of one transaction, applied once it has committed
+     */
+    private final class CommittingChanges implements TransactionSynchronization {
+
+        private final List<AccountChangedEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            lock.writeLock().lock();
+            try {
+                committing.add(this);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BalanceAggregates.this);
+            lock.writeLock().lock();
+            try {
+                committing.remove(this);
+                if (status == STATUS_COMMITTED) {
+                    events.forEach(BalanceAggregates.this::apply);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public BalanceAggregates(MeterRegistry meterRegistry) {
+        driftCounter = Counter.builder("accounts.aggregates.drift")
+                .description("Balance aggregate groups found out of line with the accounts table")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recompute every group from the accounts table, replacing the current totals
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        int loaded = recompute(totals -> {
+            groups = totals;
+            ready = true;
+            return totals.size();
+        });
+        log.info("Loaded balance aggregates for {} groups in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Apply a change once its transaction has committed; a change made outside a transaction
+     * is applied at once
+     */
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.writeLock().lock();
+            try {
+                apply(event);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        CommittingChanges changes = (CommittingChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new CommittingChanges();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        changes.events.add(event);
+    }
+
+    /**
+     * Account counts and balance totals grouped by the given dimensions
+     * @param dimensions any of {@link #DIMENSIONS}; the currency is always grouped by, since
+     *                   balances in different currencies cannot be added up
+     * @return one aggregate per group, ordered by branch, currency, type and status
+     * @throws IllegalArgumentException if a dimension is unknown
+     */
+    public List<BalanceAggregate> query(Set<String> dimensions) {
+        for (String dimension : dimensions) {
+            if (!DIMENSIONS.contains(dimension)) {
+                throw new IllegalArgumentException("Unknown dimension: " + dimension);
+            }
+        }
+
+        Map<Group, Totals> rolledUp = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            groups.forEach((group, totals) -> {
+                Totals target = rolledUp.computeIfAbsent(group.rollUp(dimensions), g -> new Totals(0, 0));
+                target.accounts += totals.accounts;
+                target.balanceMinor += totals.balanceMinor;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<BalanceAggregate> aggregates = new ArrayList<>(rolledUp.size());
+        rolledUp.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(GROUP_ORDER))
+                .forEach(entry -> aggregates.add(new BalanceAggregate(entry.getKey().branch(),
+                        entry.getKey().currency(), entry.getKey().type(), entry.getKey().status(),
+                        entry.getValue().accounts, Balances.format(entry.getValue().balanceMinor))));
+        return aggregates;
+    }
+
+    /**
+     * Check the totals against a full recompute and repair the groups that drifted
+     * @return number of groups that were out of line
+     */
+    @Scheduled(initialDelayString = "${accounts.aggregates.reconcile-interval-ms:300000}",
+            fixedDelayString = "${accounts.aggregates.reconcile-interval-ms:300000}")
+    public int reconcile() {
+        return recompute(expected -> {
+            Set<Group> keys = new HashSet<>(groups.keySet());
+            keys.addAll(expected.keySet());
+            int drifted = 0;
+            for (Group group : keys) {
+                Totals actual = groups.get(group);
+                Totals wanted = expected.get(group);
+                if (wanted == null || !wanted.matches(actual)) {
+                    drifted++;
+                    log.warn("Balance aggregate for {} drifted: held {}, table has {}", group,
+                            Objects.requireNonNullElse(actual, "nothing"), Objects.requireNonNullElse(wanted, "nothing"));
+                }
+            }
+            if (drifted > 0) {
+                driftCounter.increment(drifted);
+                log.warn("Repaired {} drifted balance aggregate groups", drifted);
+            }
+            groups = expected;
+            return drifted;
+        });
+    }
+
+    /**
+     * Recompute every group from the accounts table and hand the totals to {@code resolve},
+     * called with the write lock held.
+     * <p>
+     * The table is scanned in a serializable read-only transaction, which reads one snapshot
+     * of the database. Changes are applied to the held totals after they commit, so during the
+     * scan some are applied but missing from the snapshot, and others are in the snapshot but
+     * still to be applied. Before resolving, the totals are corrected for both: the changes
+     * applied since the scan started are added unless the snapshot has them, and the changes
+     * still committing are taken out if it does. The change log entry written with each change
+     * tells whether the snapshot has it.
+     */
+    private <T> T recompute(Function<Map<Group, Totals>, T> resolve) {
+        recomputing.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                appliedDuringRecompute = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+            return transaction.execute(status -> {
+                Map<Group, Totals> totals = totals(accountRepository.sumBalancesByGroup());
+                lock.writeLock().lock();
+                try {
+                    List<AccountChangedEvent> stillCommitting = new ArrayList<>();
+                    committing.forEach(changes -> stillCommitting.addAll(changes.events));
+                    Set<Long> scanned = findLogged(appliedDuringRecompute, stillCommitting);
+                    for (AccountChangedEvent event : appliedDuringRecompute) {
+                        if (!scanned.contains(event.getChangeId())) {
+                            apply(totals, event, 1);
+                        }
+                    }
+                    for (AccountChangedEvent event : stillCommitting) {
+                        if (scanned.contains(event.getChangeId())) {
+                            apply(totals, event, -1);
+                        }
+                    }
+                    appliedDuringRecompute = null;
+                    return resolve.apply(totals);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        } finally {
+            lock.writeLock().lock();
+            try {
+                appliedDuringRecompute = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            recomputing.unlock();
+        }
+    }
+
+    /**
+     * Keys of the change log entries of these changes that the current transaction sees
+     */
+    private Set<Long> findLogged(List<AccountChangedEvent> applied, List<AccountChangedEvent> committing) {
+        List<Long> ids = Stream.concat(applied.stream(), committing.stream())
+                .map(AccountChangedEvent::getChangeId)
+                .filter(Objects::nonNull)
+                .toList();
+        Set<Long> logged = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += LOG_CHECK_CHUNK) {
+            logged.addAll(changeRepository.findIdsIn(ids.subList(from, Math.min(from + LOG_CHECK_CHUNK, ids.size()))));
+        }
+        return logged;
+    }
+
+    /**
+     * Apply a committed change to the held totals, with the write lock held
+     */
+    private void apply(AccountChangedEvent event) {
+        apply(groups, event, 1);
+        if (appliedDuringRecompute != null) {
+            appliedDuringRecompute.add(event);
+        }
+    }
+
+    /**
+     * Add a change to totals, or with a sign of -1 take it out
+     */
+    private static void apply(Map<Group, Totals> totals, AccountChangedEvent event, int sign) {
+        if (event.getPrevious() != null) {
+            adjust(totals, event.getPrevious(), -sign, -sign * event.getPrevious().balanceMinor());
+        }
+        if (event.getCurrent() != null) {
+            adjust(totals, event.getCurrent(), sign, sign * event.getCurrent().balanceMinor());
+        }
+    }
+
+    /**
+     * Adjust the totals of a group, dropping the group once it holds no accounts and no balance
+     */
+    private static void adjust(Map<Group, Totals> totals, BalancePosition position, int accounts, long balanceMinor) {
+        totals.compute(Group.of(position), (key, group) -> {
+            Totals adjusted = group == null ? new Totals(0, 0) : group;
+            adjusted.accounts += accounts;
+            adjusted.balanceMinor += balanceMinor;
+            return adjusted.accounts == 0 && adjusted.balanceMinor == 0 ? null : adjusted;
+        });
+    }
+
+    private static Map<Group, Totals> totals(List<Object[]> rows) {
+        Map<Group, Totals> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            totals.put(new Group((String) row[0], (String) row[1], (String) row[2], (String) row[3]),
+                    new Totals(((Number) row[4]).longValue(), row[5] == null ? 0 : ((Number) row[5]).longValue()));
+        }
+        return totals;
+    }
+}
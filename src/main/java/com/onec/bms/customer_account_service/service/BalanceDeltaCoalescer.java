@@ -0,0 +1,178 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.BalanceDeltaFailure;
+import com.onec.bms.customer_account_service.model.Balances;
+import com.onec.bms.customer_account_service.repository.BalanceDeltaFailureRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Folds concurrent balance deltas for the same account into one write per flush.
+ * Deltas are summed in minor units into per-thread stripes, so callers hitting the
+ * same hot account do not contend with each other; every tick the stripes are
+ * drained and each account with a non-zero total gets a single UPDATE statement.
+ * A total that cannot be applied is queued again, up to a limit of attempts. One that still
+ * fails, or whose account has gone, has been acknowledged to the client already, so it is
+ * written to the balance_delta_failures table for reconciliation and counted in
+ * {@code accounts.balance.deltas.failed}; it is only taken off the queue once it is stored there.
+ */
+@Component
+public class BalanceDeltaCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceDeltaCoalescer.class);
+
+    public static final String FAILED_METRIC = "accounts.balance.deltas.failed";
+
+    @Lazy
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BalanceDeltaFailureRepository failureRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${accounts.balance.coalescing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${accounts.balance.coalescing.max-flush-attempts:5}")
+    private int maxFlushAttempts;
+
+    private final List<ConcurrentHashMap<String, Long>> stripes;
+    private final int stripeMask;
+
+    /** Failed flushes in a row per account, cleared once its delta is applied or stored as failed */
+    private final ConcurrentHashMap<String, Integer> failedFlushes = new ConcurrentHashMap<>();
+
+    public BalanceDeltaCoalescer() {
+        int count = Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) << 1;
+        stripes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stripes.add(new ConcurrentHashMap<>());
+        }
+        stripeMask = count - 1;
+    }
+
+    /**
+     * Whether balance deltas should be coalesced instead of applied immediately
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a balance delta for the next flush
+     * @param accountNumber the account number
+     * @param deltaMinor signed amount in minor units
+     */
+    public void add(String accountNumber, long deltaMinor) {
+        int hash = System.identityHashCode(Thread.currentThread());
+        stripes.get((hash ^ (hash >>> 16)) & stripeMask).merge(accountNumber, deltaMinor, Long::sum);
+    }
+
+    /**
+     * Apply every queued delta, one balance update per account
+     * @return number of accounts updated
+     */
+    @Scheduled(fixedDelayString = "${accounts.balance.coalescing.flush-interval-ms:50}")
+    public int flush() {
+        int updated = 0;
+        for (Map.Entry<String, Long> total : drain().entrySet()) {
+            String accountNumber = total.getKey();
+            long deltaMinor = total.getValue();
+            try {
+                if (accountService.addToBalance(accountNumber, deltaMinor)) {
+                    updated++;
+                    failedFlushes.remove(accountNumber);
+                } else {
+                    // Deleted after the delta was accepted
+                    storeFailure(accountNumber, deltaMinor, "Account not found");
+                }
+            } catch (RuntimeException e) {
+                int attempts = failedFlushes.merge(accountNumber, 1, Integer::sum);
+                if (attempts < maxFlushAttempts) {
+                    // Keep the delta for the next tick rather than losing it
+                    log.warn("Could not apply balance delta for account {} (attempt {} of {}), retrying",
+                            accountNumber, attempts, maxFlushAttempts, e);
+                    add(accountNumber, deltaMinor);
+                } else {
+                    storeFailure(accountNumber, deltaMinor, "Failed " + attempts + " times: "
+                            + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Apply what is still queued before the context, and with it the data source, goes away.
+     * What cannot be applied now is stored as failed rather than left in memory.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void flushOnShutdown() {
+        flush();
+        for (Map.Entry<String, Long> total : drain().entrySet()) {
+            if (!storeFailure(total.getKey(), total.getValue(), "Not applied before shutdown")) {
+                log.error("Lost balance delta {} for account {} at shutdown",
+                        Balances.format(total.getValue()), total.getKey());
+            }
+        }
+    }
+
+    /**
+     * Take every queued delta off the stripes
+     * @return the non-zero total per account
+     */
+    private Map<String, Long> drain() {
+        Map<String, Long> totals = new HashMap<>();
+        for (ConcurrentHashMap<String, Long> stripe : stripes) {
+            for (String accountNumber : stripe.keySet()) {
+                Long minorUnits = stripe.remove(accountNumber);
+                if (minorUnits != null) {
+                    totals.merge(accountNumber, minorUnits, Long::sum);
+                }
+            }
+        }
+        totals.values().removeIf(minorUnits -> minorUnits == 0);
+        return totals;
+    }
+
+    /**
+     * Record a delta that will not be applied. If even that fails, the delta goes back on the
+     * queue, so it is tried again with the next flush instead of being lost.
+     * @return true if the delta was stored
+     */
+    private boolean storeFailure(String accountNumber, long deltaMinor, String reason) {
+        try {
+            failureRepository.save(new BalanceDeltaFailure(accountNumber, deltaMinor,
+                    StringUtils.truncate(reason, 1000), Instant.now()));
+        } catch (RuntimeException e) {
+            log.warn("Could not store failed balance delta for account {}, keeping it queued", accountNumber, e);
+            add(accountNumber, deltaMinor);
+            return false;
+        }
+        failedFlushes.remove(accountNumber);
+        meterRegistry.counter(FAILED_METRIC).increment();
+        log.error("Balance delta {} for account {} could not be applied and was stored as failed: {}",
+                Balances.format(deltaMinor), accountNumber, reason);
+        return true;
+    }
+}
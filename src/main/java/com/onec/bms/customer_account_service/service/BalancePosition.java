@@ -0,0 +1,15 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.Account;
+
+/**
+ * The part of an account the balance aggregates care about: the columns it is grouped by and its balance
+ */
+public record BalancePosition(String branch, String currency, String type, String status, long balanceMinor) {
+
+    public static BalancePosition of(Account account) {
+        Long balanceMinor = account.getAccountBalanceMinor();
+        return new BalancePosition(account.getAccountBranch(), account.getAccountCurrency(),
+                account.getAccountType(), account.getAccountStatus(), balanceMinor == null ? 0 : balanceMinor);
+    }
+}
@@ -0,0 +1,323 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over normalized customer names.
+ * Every name is split into overlapping three-character grams; a substring query is
+ * answered by intersecting the posting lists of its own grams and checking the few
+ * remaining candidates, instead of scanning every row with LIKE '%x%'.
+ * The index is loaded once at startup and then follows {@link AccountChangedEvent}s.
+ */
+@Component
+public class CustomerNameIndex {
+
+    /** Shortest query the index can answer; shorter ones have no complete trigram */
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerNameIndex.class);
+
+    /** Rebuild the postings once this many entries point at replaced or deleted names */
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::rank)
+            .thenComparingInt(hit -> hit.name().length())
+            .thenComparing(Hit::accountNumber);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Documents are numbered in insertion order, so every posting list stays sorted
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> documents = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * Whether the index has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of accounts in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Load the index from the accounts table, replacing whatever it held
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            transaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = accountRepository.streamCustomerNames()) {
+                    rows.forEach(row -> add((String) row[0], (String) row[1]));
+                }
+            });
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} customer names in {} ms", documents.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (event.getType() == AccountChangedEvent.Type.DELETED) {
+            remove(event.getAccountNumber());
+        } else if (event.getAccount() != null) {
+            put(event.getAccountNumber(), event.getAccount().getAccountCustomerNameNormalized());
+        }
+    }
+
+    /**
+     * Add an account or replace its name
+     * @param accountNumber the account number
+     * @param normalizedName the normalized customer name
+     */
+    public void put(String accountNumber, String normalizedName) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = documents.get(accountNumber);
+            if (existing != null) {
+                if (names.get(existing).equals(normalizedName)) {
+                    return;
+                }
+                deleted.set(existing);
+            }
+            add(accountNumber, normalizedName);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an account
+     * @param accountNumber the account number
+     */
+    public void remove(String accountNumber) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = documents.remove(accountNumber);
+            if (existing != null) {
+                deleted.set(existing);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the accounts whose normalized customer name contains the query.
+     * Names starting with the query rank first, then names with a word starting with it,
+     * then other matches; ties go to the shorter name, then the lower account number.
+     * @param normalizedQuery the normalized query, at least {@link #MIN_QUERY_LENGTH} characters
+     * @param limit maximum number of results
+     * @return matching account numbers, best match first
+     */
+    public List<String> search(String normalizedQuery, int limit) {
+        if (normalizedQuery.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query must have at least " + MIN_QUERY_LENGTH + " characters");
+        }
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(normalizedQuery);
+            for (int document : candidates) {
+                if (deleted.get(document)) {
+                    continue;
+                }
+                String name = names.get(document);
+                int position = name.indexOf(normalizedQuery);
+                if (position < 0) {
+                    continue;
+                }
+                int rank = position == 0 ? 0 : name.charAt(position - 1) == ' ' ? 1 : 2;
+                Hit worst = best.size() < limit ? null : best.peek();
+                // Common fragments match a large share of the table; skip hits that cannot make the cut
+                if (worst != null && (rank > worst.rank()
+                        || rank == worst.rank() && name.length() > worst.name().length())) {
+                    continue;
+                }
+                best.add(new Hit(rank, name, accountNumbers.get(document)));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        List<String> result = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            result.add(hit.accountNumber());
+        }
+        return result;
+    }
+
+    /**
+     * Documents holding every trigram of the query, smallest posting list first
+     */
+    private int[] candidates(String query) {
+        Set<Long> grams = trigrams(query);
+        Postings[] lists = new Postings[grams.size()];
+        int i = 0;
+        for (long gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists[i++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+        int[] result = Arrays.copyOf(lists[0].documents, lists[0].size);
+        int length = result.length;
+        for (int l = 1; l < lists.length && length > 0; l++) {
+            length = intersect(result, length, lists[l]);
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Keep the first length entries of target that also occur in the posting list
+     * @return new number of entries in target
+     */
+    private static int intersect(int[] target, int length, Postings list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < length && j < list.size; i++) {
+            while (j < list.size && list.documents[j] < target[i]) {
+                j++;
+            }
+            if (j < list.size && list.documents[j] == target[i]) {
+                target[kept++] = target[i];
+            }
+        }
+        return kept;
+    }
+
+    private void add(String accountNumber, String normalizedName) {
+        int document = names.size();
+        accountNumbers.add(accountNumber);
+        names.add(normalizedName);
+        documents.put(accountNumber, document);
+        for (long gram : trigrams(normalizedName)) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(document);
+        }
+    }
+
+    private void clear() {
+        accountNumbers.clear();
+        names.clear();
+        documents.clear();
+        deleted.clear();
+        postings.clear();
+    }
+
+    /**
+     * Renumber the live documents once stale entries outweigh them
+     */
+    private void compactIfNeeded() {
+        int stale = deleted.cardinality();
+        if (stale < COMPACT_THRESHOLD || stale < documents.size()) {
+            return;
+        }
+        List<String> liveNumbers = new ArrayList<>(documents.size());
+        List<String> liveNames = new ArrayList<>(documents.size());
+        for (int document = 0; document < names.size(); document++) {
+            if (!deleted.get(document)) {
+                liveNumbers.add(accountNumbers.get(document));
+                liveNames.add(names.get(document));
+            }
+        }
+        clear();
+        for (int i = 0; i < liveNumbers.size(); i++) {
+            add(liveNumbers.get(i), liveNames.get(i));
+        }
+    }
+
+    /**
+     * Distinct trigrams of a string, each packed into a long
+     */
+    private static Set<Long> trigrams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + MIN_QUERY_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * Growable sorted list of document numbers
+     */
+    private static final class Postings {
+        private int[] documents = new int[4];
+        private int size;
+
+        void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size << 1);
+            }
+            documents[size++] = document;
+        }
+    }
+
+    private record Hit(int rank, String name, String accountNumber) {}
+}
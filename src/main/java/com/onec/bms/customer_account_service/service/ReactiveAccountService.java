@@ -0,0 +1,32 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.repository.ReactiveAccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking account lookups for callers that fan out many reads per request.
+ * Reads go to the database directly and always see the latest committed state;
+ * they do not use the account cache of AccountService.
+ */
+@Service
+public class ReactiveAccountService {
+
+    @Autowired
+    private ReactiveAccountRepository reactiveAccountRepository;
+
+    public Mono<Account> getAccountByNumber(String accountNumber) {
+        return reactiveAccountRepository.findByAccountNumber(accountNumber);
+    }
+
+    public Flux<Account> getAccountsByCustomerId(String customerId) {
+        return reactiveAccountRepository.findByAccountCustomerId(customerId);
+    }
+
+    public Flux<Account> getAllAccounts() {
+        return reactiveAccountRepository.findAll();
+    }
+}
@@ -0,0 +1,99 @@
+package com.onec.bms.customer_account_service.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one call per key at a time: callers that arrive while a call for their key is in
+ * flight wait for it and share its result, or its exception. The first caller runs the call on
+ * its own thread. A caller that has waited the maximum time, or is interrupted while waiting,
+ * stops waiting and runs the call itself.
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder shared = new LongAdder();
+    private final long maxWaitMillis;
+
+    /**
+     * @param maxWaitMillis longest a caller waits for another caller's call
+     */
+    public SingleFlight(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Run the call, or share the result of the one in flight for the same key
+     * @param key identifies calls whose results are interchangeable
+     * @param call the call
+     * @return the result, shared with the other callers of the same flight
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            return lead(key, flight, call);
+        }
+        try {
+            V result = existing.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            shared.increment();
+            return result;
+        } catch (ExecutionException e) {
+            // The leader's exception, rethrown as is
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return call.get();
+        }
+    }
+
+    /**
+     * @return how many callers were answered with another caller's result
+     */
+    public long shared() {
+        return shared.sum();
+    }
+
+    /**
+     * Stop sharing the call in flight for a key: callers from now on start a new one.
+     * Callers already waiting still get its result.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * Stop sharing every call in flight
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> call) {
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+}
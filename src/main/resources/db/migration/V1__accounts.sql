@@ -0,0 +1,24 @@
+-- Baseline: the accounts table as it was before balances moved to minor units,
+-- and the sequence account numbers are reserved from, see AccountNumberAllocator
+CREATE TABLE accounts (
+    account_number VARCHAR(255) NOT NULL PRIMARY KEY,
+    account_type VARCHAR(255) NOT NULL,
+    account_status VARCHAR(255) NOT NULL,
+    account_balance VARCHAR(255) NOT NULL,
+    account_currency VARCHAR(255) NOT NULL,
+    account_opening_date VARCHAR(255),
+    account_closing_date VARCHAR(255),
+    account_description VARCHAR(255),
+    account_branch VARCHAR(255),
+    account_customer_id VARCHAR(255) NOT NULL,
+    account_customer_name VARCHAR(255) NOT NULL,
+    account_customer_email VARCHAR(255),
+    account_customer_phone VARCHAR(255),
+    account_customer_address VARCHAR(255),
+    account_customer_city VARCHAR(255),
+    account_customer_state VARCHAR(255),
+    account_customer_zip VARCHAR(255),
+    version BIGINT
+);
+
+CREATE SEQUENCE IF NOT EXISTS account_number_block_seq START WITH 1 INCREMENT BY 1;
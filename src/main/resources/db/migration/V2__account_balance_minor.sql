@@ -0,0 +1,11 @@
+-- Balances move from the text column account_balance to a BIGINT of minor units
+-- (hundredths of the currency unit), see Balances. Sub-cent text balances are rounded half up.
+ALTER TABLE accounts ADD COLUMN account_balance_minor BIGINT;
+
+UPDATE accounts
+SET account_balance_minor = CAST(ROUND(CAST(TRIM(account_balance) AS DECIMAL(38, 10)) * 100, 0) AS BIGINT);
+
+ALTER TABLE accounts ALTER COLUMN account_balance_minor SET NOT NULL;
+ALTER TABLE accounts DROP COLUMN account_balance;
+
+CREATE INDEX idx_accounts_branch_balance ON accounts (account_branch, account_balance_minor);
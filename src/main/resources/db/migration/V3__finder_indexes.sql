@@ -0,0 +1,6 @@
+-- Secondary indexes for the AccountRepository finders
+CREATE INDEX idx_accounts_customer_id ON accounts (account_customer_id);
+CREATE INDEX idx_accounts_customer_email ON accounts (account_customer_email);
+CREATE INDEX idx_accounts_type ON accounts (account_type);
+CREATE INDEX idx_accounts_status_type ON accounts (account_status, account_type);
+CREATE INDEX idx_accounts_branch_status ON accounts (account_branch, account_status);
@@ -0,0 +1,3 @@
+-- Last write time of each account, the Last-Modified validator of conditional requests.
+-- Kept at millisecond precision so it matches the value handed out in ETags.
+ALTER TABLE accounts ADD COLUMN last_modified TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP(3) NOT NULL;
@@ -0,0 +1,9 @@
+-- Append-only log of committed account changes, read by the change feed.
+-- Sequence numbers are assigned by the application in commit order.
+CREATE TABLE account_changes (
+    sequence BIGINT NOT NULL PRIMARY KEY,
+    account_number VARCHAR(255) NOT NULL,
+    change_type VARCHAR(255) NOT NULL,
+    recorded_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+CREATE INDEX idx_account_changes_account ON account_changes (account_number, sequence);
@@ -0,0 +1,22 @@
+-- Change log sequence numbers are assigned by the database once a change has committed, rather
+-- than by the application while it commits, so every node can write to the log. A change gets
+-- its own key when it is written and keeps a null sequence number until it is numbered.
+ALTER TABLE account_changes ADD COLUMN id BIGINT;
+UPDATE account_changes SET id = sequence;
+ALTER TABLE account_changes ALTER COLUMN id SET NOT NULL;
+ALTER TABLE account_changes DROP PRIMARY KEY;
+ALTER TABLE account_changes ADD PRIMARY KEY (id);
+ALTER TABLE account_changes ALTER COLUMN sequence SET NULL;
+CREATE UNIQUE INDEX idx_account_changes_sequence ON account_changes (sequence);
+
+-- Keys are allocated 50 at a time, each block ending at the value drawn
+CREATE SEQUENCE account_change_id_seq START WITH 51 INCREMENT BY 50;
+ALTER SEQUENCE account_change_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 51 FROM account_changes);
+
+-- Sequence numbers carry on from the ones already in the log
+CREATE SEQUENCE account_change_seq START WITH 1 INCREMENT BY 1;
+ALTER SEQUENCE account_change_seq RESTART WITH (SELECT COALESCE(MAX(sequence), 0) + 1 FROM account_changes);
+
+-- Locked while changes are numbered, so one node numbers at a time
+CREATE TABLE account_change_sequencer (id INT NOT NULL PRIMARY KEY);
+INSERT INTO account_change_sequencer VALUES (1);
@@ -0,0 +1,11 @@
+-- Coalesced balance deltas that were accepted but could not be applied, kept for reconciliation.
+-- Keys are allocated 50 at a time.
+CREATE SEQUENCE balance_delta_failure_id_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE balance_delta_failures (
+    id BIGINT NOT NULL PRIMARY KEY,
+    account_number VARCHAR(255) NOT NULL,
+    delta_minor BIGINT NOT NULL,
+    reason VARCHAR(1000),
+    failed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+CREATE INDEX idx_balance_delta_failures_account ON balance_delta_failures (account_number);
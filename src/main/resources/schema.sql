@@ -0,0 +1,8 @@
+-- Account numbers are reserved in blocks from this sequence, see AccountNumberAllocator
+CREATE SEQUENCE IF NOT EXISTS account_number_block_seq START WITH 1 INCREMENT BY 1;
+
+-- Sequence numbers of the account change log, assigned with account_change_sequencer locked,
+-- see AccountChangeLog
+CREATE SEQUENCE IF NOT EXISTS account_change_seq START WITH 1 INCREMENT BY 1;
+CREATE TABLE IF NOT EXISTS account_change_sequencer (id INT NOT NULL PRIMARY KEY);
+MERGE INTO account_change_sequencer KEY (id) VALUES (1);
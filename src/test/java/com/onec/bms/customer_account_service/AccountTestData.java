@@ -0,0 +1,66 @@
+package com.onec.bms.customer_account_service;
+
+import com.onec.bms.customer_account_service.model.CustomerNames;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds the accounts table with generated rows for index and benchmark tests.
+ * Seeded account numbers start with SEED- so they never collide with allocated ones.
+ */
+public final class AccountTestData {
+
+    public static final int BRANCHES = 50;
+
+    /** Customer names are FIRST_NAMES[x % 8] + LAST_NAMES[x / 8 % 8] + x */
+    public static final String[] FIRST_NAMES = {"John", "Jane", "José", "Amélie", "Wei", "Priya", "Olu", "Sven"};
+    public static final String[] LAST_NAMES =
+            {"Doe", "Smith", "García", "Müller", "Zhang", "Patel", "Okafor", "Lindqvist"};
+
+    private AccountTestData() {}
+
+    /**
+     * Replace any previously seeded accounts with freshly generated ones in one set-based statement
+     * @param jdbcTemplate template on the test database
+     * @param rows number of accounts to insert
+     */
+    public static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.update("DELETE FROM accounts WHERE account_number LIKE 'SEED-%'");
+        String firstName = pick("MOD(X, 8)", FIRST_NAMES, false);
+        String lastName = pick("MOD(X / 8, 8)", LAST_NAMES, false);
+        String normalizedFirstName = pick("MOD(X, 8)", FIRST_NAMES, true);
+        String normalizedLastName = pick("MOD(X / 8, 8)", LAST_NAMES, true);
+        jdbcTemplate.update("""
+                INSERT INTO accounts (account_number, account_type, account_status, account_balance_minor,
+                    account_currency, account_opening_date, account_branch, account_customer_id,
+                    account_customer_name, account_customer_name_normalized, account_customer_email,
+                    account_customer_city, version, last_modified)
+                SELECT 'SEED-' || LPAD(X, 8, '0'),
+                    CASE MOD(X, 3) WHEN 0 THEN 'SAVINGS' WHEN 1 THEN 'CHECKING' ELSE 'BUSINESS' END,
+                    CASE WHEN MOD(X, 20) = 0 THEN 'SUSPENDED' WHEN MOD(X, 7) = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END,
+                    MOD(X * 7919, 10000000),
+                    CASE MOD(X, 4) WHEN 0 THEN 'EUR' ELSE 'USD' END,
+                    '2024-01-15',
+                    'BRANCH-' || MOD(X, ?),
+                    'CUST-' || (X / 3),
+                    %s || ' ' || %s || ' ' || X,
+                    %s || ' ' || %s || ' ' || X,
+                    'customer' || (X / 3) || '@example.com',
+                    'City ' || MOD(X, 100),
+                    0,
+                    CURRENT_TIMESTAMP(3)
+                FROM SYSTEM_RANGE(1, ?)
+                """.formatted(firstName, lastName, normalizedFirstName, normalizedLastName), BRANCHES, rows);
+    }
+
+    /**
+     * SQL CASE expression choosing one of the names by the given selector
+     */
+    private static String pick(String selector, String[] names, boolean normalized) {
+        StringBuilder sql = new StringBuilder("CASE ").append(selector);
+        for (int i = 0; i < names.length; i++) {
+            String name = normalized ? CustomerNames.normalize(names[i]) : names[i];
+            sql.append(" WHEN ").append(i).append(" THEN '").append(name).append('\'');
+        }
+        return sql.append(" END").toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.onec.bms.customer_account_service;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The prod profile against a fresh file-backed store: Flyway builds the schema,
+ * Hibernate validates the entities against it, and an account round-trips through it
+ */
+@SpringBootTest(properties = "spring.profiles.active=prod")
+@AutoConfigureMockMvc
+class ProdProfileTests {
+
+    @TempDir
+    static Path storage;
+
+    @DynamicPropertySource
+    static void storagePath(DynamicPropertyRegistry registry) {
+        registry.add("accounts.storage.path", () -> storage.resolve("accounts").toAbsolutePath().toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migratesTheStoreAndRoundTripsAnAccount() throws Exception {
+        assertThat(Arrays.stream(flyway.info().applied()).map(MigrationInfo::getVersion).map(Object::toString))
+                .containsExactly("1", "2", "3", "4", "5", "6", "7", "8");
+        assertThat(flyway.info().pending()).isEmpty();
+        // Nothing is seeded in prod
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Long.class)).isZero();
+
+        mockMvc.perform(post("/api/v1/accounts").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"accountNumber":"PROD-000001","accountType":"SAVINGS","accountBalance":"1234.56",
+                         "accountCurrency":"EUR","accountCustomerId":"CUST-PROD","accountCustomerName":"Zoë Prod"}
+                        """))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/accounts/PROD-000001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountBalance").value("1234.56"))
+                .andExpect(jsonPath("$.accountCurrency").value("EUR"))
+                .andExpect(jsonPath("$.accountCustomerName").value("Zoë Prod"));
+
+        assertThat(jdbcTemplate.queryForMap("SELECT account_balance_minor, account_customer_name_normalized " +
+                "FROM accounts WHERE account_number = 'PROD-000001'"))
+                .containsEntry("ACCOUNT_BALANCE_MINOR", 123456L)
+                .containsEntry("ACCOUNT_CUSTOMER_NAME_NORMALIZED", "zoe prod");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_changes WHERE account_number = 'PROD-000001'",
+                Long.class)).isEqualTo(1);
+    }
+}
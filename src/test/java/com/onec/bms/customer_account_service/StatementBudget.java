@@ -0,0 +1,35 @@
+package com.onec.bms.customer_account_service;
+
+import com.onec.bms.customer_account_service.config.RequestStatistics;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails a test when a call runs more SQL statements than it is budgeted for.
+ * The call must run on the test thread, as MockMvc requests do.
+ */
+public final class StatementBudget {
+
+    private StatementBudget() {}
+
+    /**
+     * Run the call and check how many SQL statements it ran
+     * @param budget the most statements the call may run
+     * @param call the call, typically a MockMvc request
+     * @return what the call returned
+     */
+    public static <T> T assertAtMost(int budget, ThrowingSupplier<T> call) throws Throwable {
+        RequestStatistics statistics = RequestStatistics.begin();
+        T result;
+        try {
+            result = call.get();
+        } finally {
+            statistics.end();
+        }
+        assertThat(statistics.getStatements())
+                .as("SQL statements (%s), ran:%n%s", statistics, String.join("\n", statistics.getSql()))
+                .isLessThanOrEqualTo(budget);
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.onec.bms.customer_account_service.AccountTestData;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * End-to-end load test of /api/v1/accounts: starts the application on a random port,
+ * drives a weighted mix of GET, POST, PUT and PATCH requests at a fixed arrival rate and
+ * reports throughput and p50/p99/p99.9 latency per operation. Fails when a percentile
+ * exceeds the budget committed in {@code load-budget.properties}.
+ * Tune with {@code -Dload.rate=}, {@code -Dload.seconds=} and {@code -Dload.mix=GET:70,POST:10,...}.
+ * Run with {@code mvn test -Pbenchmark -Dtest=AccountApiLoadTests}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load-test",
+        "spring.jpa.show-sql=false"
+})
+class AccountApiLoadTests {
+
+    private static final int ROWS = 10_000;
+    private static final int RATE = Integer.getInteger("load.rate", 50);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 20);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+    private static final String MIX = System.getProperty("load.mix", AccountApiMix.DEFAULT_MIX);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void accountApiMeetsLatencyBudget() throws IOException {
+        AccountTestData.seed(jdbcTemplate, ROWS);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        LoadGenerator generator = new LoadGenerator(client, AccountApiMix.operations(port, ROWS, MIX), RATE);
+
+        generator.run(Duration.ofSeconds(WARMUP_SECONDS));
+        Map<String, LoadGenerator.Result> results = generator.run(Duration.ofSeconds(SECONDS));
+
+        System.out.printf("%d req/s offered for %d s%n", RATE, SECONDS);
+        System.out.printf("%-8s %8s %9s %9s %9s %9s %9s %7s%n",
+                "op", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        results.values().forEach(result -> System.out.printf("%-8s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                result.name(), result.count(), result.throughput(), result.percentileMillis(50),
+                result.percentileMillis(99), result.percentileMillis(99.9),
+                result.latencies().getMaxValue() / 1e6, result.errors()));
+
+        Properties budget = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/load-budget.properties")) {
+            budget.load(in);
+        }
+        SoftAssertions softly = new SoftAssertions();
+        for (LoadGenerator.Result result : results.values()) {
+            String name = result.name();
+            softly.assertThat(result.percentileMillis(99)).as(name + " p99 ms")
+                    .isLessThanOrEqualTo(Double.parseDouble(budget.getProperty(name + ".p99-ms")));
+            softly.assertThat(result.percentileMillis(99.9)).as(name + " p99.9 ms")
+                    .isLessThanOrEqualTo(Double.parseDouble(budget.getProperty(name + ".p999-ms")));
+            softly.assertThat(result.errorRate()).as(name + " error rate")
+                    .isLessThanOrEqualTo(Double.parseDouble(budget.getProperty("max-error-rate")));
+        }
+        softly.assertAll();
+    }
+}
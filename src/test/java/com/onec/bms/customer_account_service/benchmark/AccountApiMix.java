@@ -0,0 +1,73 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.onec.bms.customer_account_service.AccountTestData;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Weighted GET/POST/PUT/PATCH request mix against /api/v1/accounts over seeded accounts,
+ * shared by the HTTP load tests so their numbers stay comparable.
+ */
+final class AccountApiMix {
+
+    static final String DEFAULT_MIX = "GET:70,POST:10,PUT:10,PATCH:10";
+
+    private AccountApiMix() {
+    }
+
+    /**
+     * Build the operations described by a mix such as {@code GET:70,POST:10}
+     * @param port port the application listens on
+     * @param rows number of seeded accounts the requests are spread over
+     */
+    static List<LoadGenerator.Operation> operations(int port, int rows, String mix) {
+        String base = "http://localhost:" + port + "/api/v1/accounts";
+        Map<String, IntFunction<HttpRequest>> requests = new LinkedHashMap<>();
+        requests.put("GET", i -> HttpRequest.newBuilder(URI.create(base + "/" + seededAccount(i, rows))).GET().build());
+        requests.put("POST", i -> HttpRequest.newBuilder(URI.create(base))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(accountJson(null, i)))
+                .build());
+        requests.put("PUT", i -> HttpRequest.newBuilder(URI.create(base + "/" + seededAccount(i, rows)))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(accountJson(seededAccount(i, rows), i)))
+                .build());
+        requests.put("PATCH", i -> HttpRequest.newBuilder(URI.create(base + "/" + seededAccount(i, rows) + "/status"))
+                .header("Content-Type", "text/plain")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(i % 2 == 0 ? "ACTIVE" : "SUSPENDED"))
+                .build());
+
+        List<LoadGenerator.Operation> operations = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] nameAndWeight = entry.trim().split(":");
+            IntFunction<HttpRequest> request = requests.get(nameAndWeight[0]);
+            if (request == null) {
+                throw new IllegalArgumentException("Unknown operation in load.mix: " + nameAndWeight[0]);
+            }
+            operations.add(new LoadGenerator.Operation(nameAndWeight[0], Integer.parseInt(nameAndWeight[1]), request));
+        }
+        return operations;
+    }
+
+    /**
+     * Spread requests over the seeded accounts so concurrent writes rarely hit the same row
+     */
+    private static String seededAccount(int i, int rows) {
+        return "SEED-" + String.format("%08d", (int) ((i * 2_654_435_761L) % rows) + 1);
+    }
+
+    private static String accountJson(String accountNumber, int i) {
+        return """
+                {"accountNumber":%s,"accountType":"SAVINGS","accountStatus":"ACTIVE","accountBalance":"%d.00",
+                 "accountCurrency":"USD","accountBranch":"BRANCH-%d","accountCustomerId":"CUST-LOAD-%d",
+                 "accountCustomerName":"Load Customer %d","accountCustomerEmail":"load%d@example.com"}
+                """.formatted(accountNumber == null ? "null" : '"' + accountNumber + '"',
+                i % 10_000, i % AccountTestData.BRANCHES, i, i, i);
+    }
+}
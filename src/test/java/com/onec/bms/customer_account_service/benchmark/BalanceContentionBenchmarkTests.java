@@ -0,0 +1,112 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.service.AccountService;
+import com.onec.bms.customer_account_service.service.BalanceDeltaCoalescer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Credits a single hot account from many threads, first with direct optimistic-lock
+ * updates and then through the coalescer, and reports the throughput of each.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BalanceContentionBenchmarkTests {
+
+    private static final int THREADS = 16;
+    private static final int CREDITS_PER_THREAD = 500;
+    private static final long AMOUNT = 100;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BalanceDeltaCoalescer balanceDeltaCoalescer;
+
+    @Test
+    void directUpdatesOnHotAccount() throws Exception {
+        String accountNumber = newHotAccount();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        long nanos = hammer(() -> {
+            try {
+                accountService.creditAccount(accountNumber, AMOUNT);
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.incrementAndGet();
+            }
+        });
+
+        int applied = THREADS * CREDITS_PER_THREAD - conflicts.get();
+        assertThat(balanceOf(accountNumber)).isEqualTo(AMOUNT * applied);
+        report("direct", nanos, conflicts.get());
+    }
+
+    @Test
+    void coalescedUpdatesOnHotAccount() throws Exception {
+        String accountNumber = newHotAccount();
+
+        long nanos = hammer(() -> accountService.submitBalanceDelta(accountNumber, AMOUNT));
+        balanceDeltaCoalescer.flush();
+
+        assertThat(balanceOf(accountNumber)).isEqualTo(AMOUNT * THREADS * CREDITS_PER_THREAD);
+        report("coalesced", nanos, 0);
+    }
+
+    private long hammer(Runnable credit) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CREDITS_PER_THREAD; i++) {
+                        credit.run();
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private String newHotAccount() {
+        Account account = new Account();
+        account.setAccountType("CHECKING");
+        account.setAccountBalance("0.00");
+        account.setAccountCustomerId("CUST-HOT");
+        account.setAccountCustomerName("Hot Account");
+        return accountService.createAccount(account).getAccountNumber();
+    }
+
+    private long balanceOf(String accountNumber) {
+        return accountService.getAccountByNumber(accountNumber).orElseThrow().getAccountBalanceMinor();
+    }
+
+    private static void report(String mode, long nanos, int conflicts) {
+        System.out.printf("%s: %,.0f credits/s on one account, %d gave up after retries%n",
+                mode, THREADS * CREDITS_PER_THREAD / (nanos / 1e9), conflicts);
+    }
+}
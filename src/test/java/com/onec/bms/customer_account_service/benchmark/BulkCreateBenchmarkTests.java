@@ -0,0 +1,68 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.BulkCreateResult;
+import com.onec.bms.customer_account_service.service.AccountService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares account creation throughput of the single-insert path with the bulk path.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BulkCreateBenchmarkTests {
+
+    private static final int ACCOUNTS = 20_000;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void singleInsertsVersusBulk() {
+        // Warm up both paths
+        createOneByOne(newAccounts(1_000));
+        accountService.createAccounts(newAccounts(1_000).iterator());
+
+        long singleNanos = createOneByOne(newAccounts(ACCOUNTS));
+
+        List<Account> bulk = newAccounts(ACCOUNTS);
+        long start = System.nanoTime();
+        BulkCreateResult result = accountService.createAccounts(bulk.iterator());
+        long bulkNanos = System.nanoTime() - start;
+
+        assertThat(result.getCreated()).isEqualTo(ACCOUNTS);
+        System.out.printf("createAccount: %,.0f accounts/s%n", ACCOUNTS / (singleNanos / 1e9));
+        System.out.printf("createAccounts: %,.0f accounts/s%n", ACCOUNTS / (bulkNanos / 1e9));
+    }
+
+    private long createOneByOne(List<Account> accounts) {
+        long start = System.nanoTime();
+        for (Account account : accounts) {
+            accountService.createAccount(account);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static List<Account> newAccounts(int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Account account = new Account();
+            account.setAccountType(i % 2 == 0 ? "SAVINGS" : "CHECKING");
+            account.setAccountBalance("100.00");
+            account.setAccountBranch("MAIN_BRANCH");
+            account.setAccountCustomerId("CUST-B" + i);
+            account.setAccountCustomerName("Bench Customer " + i);
+            accounts.add(account);
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,98 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.onec.bms.customer_account_service.AccountTestData;
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import com.onec.bms.customer_account_service.service.AccountService;
+import com.onec.bms.customer_account_service.service.CustomerNameIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the derived LIKE '%x%' finder with the trigram name index on 1M seeded accounts,
+ * for a selective fragment (a few matches) and a common one (an eighth of the table).
+ * Override the row count with {@code -Dbenchmark.rows=...}.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:name-search-benchmark",
+        "spring.jpa.show-sql=false"
+})
+class CustomerNameSearchBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int LIMIT = 50;
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURE_NANOS = 3_000_000_000L;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CustomerNameIndex customerNameIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void nameSearchLatency() {
+        long start = System.nanoTime();
+        AccountTestData.seed(jdbcTemplate, ROWS);
+        System.out.printf("seeded %d accounts in %d ms%n", ROWS, (System.nanoTime() - start) / 1_000_000);
+        customerNameIndex.rebuild();
+        assertThat(customerNameIndex.size()).isGreaterThanOrEqualTo(ROWS);
+        assertThat(accountService.searchAccountsByCustomerName("Müller 1234", LIMIT))
+                .extracting(Account::getAccountNumber)
+                .containsExactlyInAnyOrderElementsOf(
+                        accountRepository.findByAccountCustomerNameContainingIgnoreCase("müller 1234").stream()
+                                .map(Account::getAccountNumber).toList());
+
+        // Vary the text on every call so H2 cannot answer from its cached result of the previous call
+        IntFunction<String> selective = i -> String.valueOf(10_000 + i * 7919 % (ROWS - 10_000));
+        IntFunction<String> common = i -> AccountTestData.LAST_NAMES[i % AccountTestData.LAST_NAMES.length]
+                .substring(0, 3) + (i % 2 == 0 ? "" : " ");
+
+        Map<String, IntFunction<?>> searches = new LinkedHashMap<>();
+        searches.put("selective: derived LIKE",
+                i -> accountRepository.findByAccountCustomerNameContainingIgnoreCase(selective.apply(i)));
+        searches.put("selective: trigram index",
+                i -> accountService.searchAccountsByCustomerName(selective.apply(i), LIMIT));
+        searches.put("common: derived LIKE",
+                i -> accountRepository.findByAccountCustomerNameContainingIgnoreCase(common.apply(i)));
+        searches.put("common: trigram index",
+                i -> accountService.searchAccountsByCustomerName(common.apply(i), LIMIT));
+        searches.put("prefix: normalized column",
+                i -> accountService.searchAccountsByCustomerName(common.apply(i).substring(0, 2), LIMIT));
+
+        System.out.printf("%-28s %12s %8s%n", "search", "ms/call", "calls");
+        searches.forEach((name, search) -> {
+            runFor(search, WARMUP_NANOS);
+            long begin = System.nanoTime();
+            int calls = runFor(search, MEASURE_NANOS);
+            System.out.printf("%-28s %12.3f %8d%n", name, (System.nanoTime() - begin) / 1e6 / calls, calls);
+        });
+    }
+
+    private static int runFor(IntFunction<?> search, long nanos) {
+        long end = System.nanoTime() + nanos;
+        int calls = 0;
+        do {
+            search.apply(calls);
+            calls++;
+        } while (System.nanoTime() < end || calls < 3);
+        return calls;
+    }
+}
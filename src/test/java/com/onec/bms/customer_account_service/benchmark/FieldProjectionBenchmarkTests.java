@@ -0,0 +1,78 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.onec.bms.customer_account_service.AccountTestData;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Payload size and latency of the full account shape against the narrow one most callers need
+ * (number, status, balance, currency), through the whole MVC stack: query, serialization and response.
+ * Override the row count with {@code -Dbenchmark.rows=...}.
+ * Run with {@code mvn test -Pbenchmark -Dtest=FieldProjectionBenchmarkTests}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:field-projection-benchmark",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class FieldProjectionBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 50_000);
+    private static final String NARROW = "accountNumber,accountStatus,accountBalance,accountCurrency";
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURE_NANOS = 3_000_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void fullAndNarrowShapes() throws Exception {
+        AccountTestData.seed(jdbcTemplate, ROWS);
+
+        // Seeded customers hold three accounts each; vary the customer so H2 cannot reuse a cached result
+        IntFunction<String> customer = i -> "/api/v1/accounts/customer/CUST-" + (1 + i % (ROWS / 3 - 1));
+        Map<String, IntFunction<RequestBuilder>> requests = new LinkedHashMap<>();
+        requests.put("customer: full", i -> get(customer.apply(i)));
+        requests.put("customer: narrow", i -> get(customer.apply(i)).param("fields", NARROW));
+        requests.put("all accounts: full", i -> get("/api/v1/accounts"));
+        requests.put("all accounts: narrow", i -> get("/api/v1/accounts").param("fields", NARROW));
+
+        System.out.printf("%-22s %14s %12s %8s%n", "request", "bytes/response", "ms/call", "calls");
+        for (Map.Entry<String, IntFunction<RequestBuilder>> request : requests.entrySet()) {
+            runFor(request.getValue(), WARMUP_NANOS);
+            int bytes = mockMvc.perform(request.getValue().apply(0)).andReturn().getResponse()
+                    .getContentAsByteArray().length;
+            long begin = System.nanoTime();
+            int calls = runFor(request.getValue(), MEASURE_NANOS);
+            System.out.printf("%-22s %14d %12.3f %8d%n", request.getKey(), bytes,
+                    (System.nanoTime() - begin) / 1e6 / calls, calls);
+        }
+    }
+
+    private int runFor(IntFunction<RequestBuilder> request, long nanos) throws Exception {
+        long end = System.nanoTime() + nanos;
+        int calls = 0;
+        do {
+            assertThat(mockMvc.perform(request.apply(calls)).andReturn().getResponse().getStatus()).isEqualTo(200);
+            calls++;
+        } while (System.nanoTime() < end || calls < 3);
+        return calls;
+    }
+}
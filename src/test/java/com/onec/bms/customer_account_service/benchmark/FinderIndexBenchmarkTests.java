@@ -0,0 +1,105 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.onec.bms.customer_account_service.AccountTestData;
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Records the latency of every AccountRepository finder with the secondary indexes
+ * declared on Account and again after dropping them. Seeded rows are committed
+ * and every finder call runs in its own transaction on the pooled data source, as in production.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false, properties = "spring.datasource.url=jdbc:h2:mem:finder-benchmark")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FinderIndexBenchmarkTests {
+
+    private static final int ROWS = 200_000;
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURE_NANOS = 2_000_000_000L;
+
+    private static final List<String> SECONDARY_INDEXES = List.of(
+            "idx_accounts_customer_id", "idx_accounts_customer_email", "idx_accounts_type",
+            "idx_accounts_status_type", "idx_accounts_branch_status", "idx_accounts_branch_balance");
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void finderLatencyWithAndWithoutIndexes() {
+        AccountTestData.seed(jdbcTemplate, ROWS);
+
+        // Every call uses a different key so H2 cannot answer from its cached result of the previous call
+        String[] types = {"SAVINGS", "CHECKING", "BUSINESS"};
+        String[] statuses = {"SUSPENDED", "INACTIVE"};
+        Map<String, IntFunction<?>> finders = new LinkedHashMap<>();
+        finders.put("findByAccountCustomerId", i -> accountRepository.findByAccountCustomerId("CUST-" + i % 60_000));
+        finders.put("findByAccountCustomerEmail",
+                i -> accountRepository.findByAccountCustomerEmail("customer" + i % 60_000 + "@example.com"));
+        finders.put("findByAccountType", i -> accountRepository.findByAccountType(types[i % types.length]));
+        finders.put("findByAccountStatus", i -> accountRepository.findByAccountStatus(statuses[i % statuses.length]));
+        finders.put("findByAccountBranch",
+                i -> accountRepository.findByAccountBranch("BRANCH-" + i % AccountTestData.BRANCHES));
+        finders.put("findByBranchAndBalanceRange", i -> accountRepository.findByBranchAndBalanceRange(
+                "BRANCH-" + i % AccountTestData.BRANCHES, i % 1000, 100_000, Limit.of(50)));
+
+        // Warm up the shared JPA code paths before either measurement
+        finders.values().forEach(finder -> runFor(finder, WARMUP_NANOS));
+        Map<String, Double> indexed = measure(finders);
+        try {
+            SECONDARY_INDEXES.forEach(index -> jdbcTemplate.execute("DROP INDEX " + index));
+            Map<String, Double> scanned = measure(finders);
+
+            System.out.printf("%-30s %12s %12s%n", "finder", "indexed ms", "no index ms");
+            indexed.forEach((finder, millis) ->
+                    System.out.printf("%-30s %12.3f %12.3f%n", finder, millis, scanned.get(finder)));
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX idx_accounts_customer_id ON accounts (account_customer_id)");
+            jdbcTemplate.execute("CREATE INDEX idx_accounts_customer_email ON accounts (account_customer_email)");
+            jdbcTemplate.execute("CREATE INDEX idx_accounts_type ON accounts (account_type)");
+            jdbcTemplate.execute("CREATE INDEX idx_accounts_status_type ON accounts (account_status, account_type)");
+            jdbcTemplate.execute("CREATE INDEX idx_accounts_branch_status ON accounts (account_branch, account_status)");
+            jdbcTemplate.execute(
+                    "CREATE INDEX idx_accounts_branch_balance ON accounts (account_branch, account_balance_minor)");
+        }
+    }
+
+    private Map<String, Double> measure(Map<String, IntFunction<?>> finders) {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        finders.forEach((name, finder) -> {
+            runFor(finder, WARMUP_NANOS);
+            long start = System.nanoTime();
+            int calls = runFor(finder, MEASURE_NANOS);
+            millis.put(name, (System.nanoTime() - start) / 1e6 / calls);
+        });
+        return millis;
+    }
+
+    private static int runFor(IntFunction<?> finder, long nanos) {
+        long end = System.nanoTime() + nanos;
+        int calls = 0;
+        do {
+            finder.apply(calls);
+            calls++;
+        } while (System.nanoTime() < end || calls < 3);
+        return calls;
+    }
+}
@@ -0,0 +1,135 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Open-model HTTP load generator.
+ * Requests are scheduled at a fixed arrival rate whether or not earlier ones have
+ * completed, and each latency is measured from the moment the request was due rather
+ * than from when it was actually sent. A server that stalls therefore shows up in
+ * the percentiles instead of silently slowing the generator down (coordinated omission).
+ */
+final class LoadGenerator {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * One kind of request in the mix
+     * @param name label used in the report and the latency budget
+     * @param weight relative share of the traffic
+     * @param request builds the i-th request of this kind
+     */
+    record Operation(String name, int weight, IntFunction<HttpRequest> request) {}
+
+    /**
+     * Latencies and outcome counts of one operation over a run
+     */
+    record Result(String name, Histogram latencies, long errors, double seconds) {
+
+        long count() {
+            return latencies.getTotalCount();
+        }
+
+        double throughput() {
+            return count() / seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+
+        double errorRate() {
+            return count() == 0 ? 0 : (double) errors / count();
+        }
+    }
+
+    private final HttpClient client;
+    private final List<Operation> mix;
+    private final int requestsPerSecond;
+
+    LoadGenerator(HttpClient client, List<Operation> mix, int requestsPerSecond) {
+        this.client = client;
+        this.mix = mix;
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /**
+     * Drive the mix at the configured rate for the given time and wait for every response
+     * @return results per operation, in mix order
+     */
+    Map<String, Result> run(Duration duration) {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        Map<String, AtomicLong> errors = new LinkedHashMap<>();
+        int totalWeight = 0;
+        for (Operation operation : mix) {
+            recorders.put(operation.name(), new Recorder(MAX_LATENCY_NANOS, 3));
+            errors.put(operation.name(), new AtomicLong());
+            totalWeight += operation.weight();
+        }
+
+        Random random = new Random(42);
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        long period = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (int i = 0; ; i++) {
+            long due = start + i * period;
+            if (due >= end) {
+                break;
+            }
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = pick(random.nextInt(totalWeight));
+            Recorder recorder = recorders.get(operation.name());
+            AtomicLong failed = errors.get(operation.name());
+            inFlight.add(client.sendAsync(operation.request().apply(i), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        recorder.recordValue(Math.min(System.nanoTime() - due, MAX_LATENCY_NANOS));
+                        if (error != null || response.statusCode() >= 300) {
+                            failed.incrementAndGet();
+                        }
+                    }));
+            if (inFlight.size() >= 10_000) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) ->
+                results.put(name, new Result(name, recorder.getIntervalHistogram(), errors.get(name).get(), seconds)));
+        return results;
+    }
+
+    private Operation pick(int ticket) {
+        for (Operation operation : mix) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+}
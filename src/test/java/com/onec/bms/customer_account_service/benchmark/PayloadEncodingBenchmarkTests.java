@@ -0,0 +1,96 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.onec.bms.customer_account_service.AccountTestData;
+import com.onec.bms.customer_account_service.config.CacheConfig;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * CPU time per request and bytes on the wire of JSON against CBOR, each with the per-account
+ * payload cache cleared before every request (every account encoded through Jackson) and kept
+ * warm (unchanged accounts copied from the cache). MockMvc runs the request on the calling
+ * thread, so its CPU time is the request's. The store is sized so the whole list fits the cache.
+ * Run with {@code mvn test -Pbenchmark -Dtest=PayloadEncodingBenchmarkTests}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payload-encoding-benchmark",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class PayloadEncodingBenchmarkTests {
+
+    private static final int ROWS = 5_000;
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURE_NANOS = 3_000_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void cpuAndBytesPerEncoding() throws Exception {
+        AccountTestData.seed(jdbcTemplate, ROWS);
+        Cache payloads = cacheManager.getCache(CacheConfig.ACCOUNT_PAYLOADS_CACHE);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        Map<String, String> uris = new LinkedHashMap<>();
+        uris.put("single account", "/api/v1/accounts/SEED-00000001");
+        uris.put("customer list", "/api/v1/accounts/customer/CUST-1");
+        uris.put(ROWS + " accounts", "/api/v1/accounts");
+
+        System.out.printf("%-16s %-6s %-6s %12s %14s %8s%n", "request", "format", "cache", "bytes", "cpu us/request",
+                "calls");
+        for (Map.Entry<String, String> uri : uris.entrySet()) {
+            for (MediaType format : new MediaType[] {MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR}) {
+                for (boolean warm : new boolean[] {false, true}) {
+                    runFor(uri.getValue(), format, warm ? null : payloads, WARMUP_NANOS);
+                    int bytes = mockMvc.perform(get(uri.getValue()).accept(format)).andReturn().getResponse()
+                            .getContentAsByteArray().length;
+                    long cpu = threads.getCurrentThreadCpuTime();
+                    int calls = runFor(uri.getValue(), format, warm ? null : payloads, MEASURE_NANOS);
+                    System.out.printf("%-16s %-6s %-6s %12d %14.1f %8d%n", uri.getKey(), format.getSubtype(),
+                            warm ? "warm" : "cold", bytes, (threads.getCurrentThreadCpuTime() - cpu) / 1e3 / calls,
+                            calls);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param clear cache to clear before every request, or null to keep it
+     */
+    private int runFor(String uri, MediaType format, Cache clear, long nanos) throws Exception {
+        long end = System.nanoTime() + nanos;
+        int calls = 0;
+        do {
+            if (clear != null) {
+                clear.clear();
+            }
+            assertThat(mockMvc.perform(get(uri).accept(format)).andReturn().getResponse().getStatus()).isEqualTo(200);
+            calls++;
+        } while (System.nanoTime() < end || calls < 3);
+        return calls;
+    }
+}
@@ -0,0 +1,67 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.onec.bms.customer_account_service.AccountTestData;
+import com.onec.bms.customer_account_service.CustomerAccountServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the platform-thread and the virtual-thread execution modes under the same
+ * open-model request mix: each mode gets its own application instance and H2 database,
+ * and the report shows throughput, p50/p99/p99.9 latency and the error rate side by side.
+ * Tune with {@code -Dload.rate=}, {@code -Dload.seconds=} and {@code -Dload.mix=}.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ThreadModeLoadComparisonTests}.
+ */
+@Tag("benchmark")
+class ThreadModeLoadComparisonTests {
+
+    private static final int ROWS = 10_000;
+    private static final int RATE = Integer.getInteger("load.rate", 50);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 20);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+    private static final String MIX = System.getProperty("load.mix", AccountApiMix.DEFAULT_MIX);
+
+    @Test
+    void compareThreadModes() {
+        System.out.printf("%d req/s offered for %d s%n", RATE, SECONDS);
+        System.out.printf("%-9s %-8s %8s %9s %9s %9s %9s %7s%n",
+                "mode", "op", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        report("platform", run("platform", "default"));
+        report("virtual", run("virtual", "virtual-threads"));
+    }
+
+    private Map<String, LoadGenerator.Result> run(String mode, String profile) {
+        // Passed as arguments so they override application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CustomerAccountServiceApplication.class)
+                .run("--server.port=0",
+                        "--spring.profiles.active=" + profile,
+                        "--spring.datasource.url=jdbc:h2:mem:thread-mode-" + mode,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN")) {
+            AccountTestData.seed(context.getBean(JdbcTemplate.class), ROWS);
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            LoadGenerator generator = new LoadGenerator(client, AccountApiMix.operations(port, ROWS, MIX), RATE);
+
+            generator.run(Duration.ofSeconds(WARMUP_SECONDS));
+            return generator.run(Duration.ofSeconds(SECONDS));
+        }
+    }
+
+    private static void report(String mode, Map<String, LoadGenerator.Result> results) {
+        results.values().forEach(result -> System.out.printf("%-9s %-8s %8d %9.1f %9.2f %9.2f %9.2f %7d%n",
+                mode, result.name(), result.count(), result.throughput(), result.percentileMillis(50),
+                result.percentileMillis(99), result.percentileMillis(99.9), result.errors()));
+        assertThat(results.values()).allSatisfy(result -> assertThat(result.count()).isPositive());
+    }
+}
@@ -0,0 +1,138 @@
+package com.onec.bms.customer_account_service.benchmark;
+
+import com.onec.bms.customer_account_service.AccountTestData;
+import com.onec.bms.customer_account_service.CustomerAccountServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time-to-first-request of the prod profile against a file-backed store that already holds
+ * 1M accounts. The store is created and seeded once in-process, then the application is
+ * started in a fresh JVM per run, as a real restart would be, and polled until it serves
+ * an account. A freshly migrated, empty store is timed the same way as the baseline,
+ * so the difference is what the data on disk costs. Override the row count with {@code -Dbenchmark.rows=...}; pass
+ * {@code -Dbenchmark.storage=<dir>} to keep the store and reuse it on the next run.
+ * Run with {@code mvn test -Pbenchmark -Dtest=WarmRestartBenchmarkTests}.
+ */
+@Tag("benchmark")
+class WarmRestartBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int RUNS = 3;
+    private static final long TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final String STORAGE = System.getProperty("benchmark.storage");
+
+    @TempDir
+    Path storage;
+
+    @Test
+    void timeToFirstRequestWithPopulatedStore() throws Exception {
+        Path directory = STORAGE == null ? storage : Files.createDirectories(Path.of(STORAGE));
+        String path = directory.resolve("accounts").toAbsolutePath().toString();
+        if (Files.notExists(directory.resolve("accounts.mv.db"))) {
+            seed(path);
+        }
+        System.out.printf("store holds %d MB on disk%n", Files.size(directory.resolve("accounts.mv.db")) >> 20);
+
+        // An empty store answers 404 for the seeded account, which still proves it is serving
+        report("empty store", restarts(storage.resolve("empty").toAbsolutePath().toString(), 404));
+        report(ROWS + "-account store", restarts(path, 200));
+    }
+
+    private List<Long> restarts(String path, int expectedStatus) throws Exception {
+        List<Long> millis = new ArrayList<>();
+        for (int run = 1; run <= RUNS; run++) {
+            Path log = storage.resolve(Path.of(path).getFileName() + "-" + run + ".log");
+            millis.add(timeToFirstRequest(path, expectedStatus, log));
+        }
+        return millis;
+    }
+
+    private static void report(String store, List<Long> millis) {
+        System.out.printf("%-22s first response after %s ms (best %d ms)%n", store, millis,
+                millis.stream().mapToLong(Long::longValue).min().orElseThrow());
+    }
+
+    /**
+     * Create the store through the prod profile, so Flyway builds the schema, and fill it
+     */
+    private static void seed(String path) {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CustomerAccountServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=prod",
+                        "--accounts.storage.path=" + path,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN")) {
+            AccountTestData.seed(context.getBean(JdbcTemplate.class), ROWS);
+        }
+        System.out.printf("created and seeded a %d-account store in %d ms%n", ROWS, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Start the application in its own JVM and poll a seeded account until it is answered
+     * @return milliseconds from process launch to the first response with the expected status
+     */
+    private static long timeToFirstRequest(String path, int expectedStatus, Path log) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String java = ProcessHandle.current().info().command().orElse("java");
+        ProcessBuilder builder = new ProcessBuilder(java, "-Xmx1g",
+                "-cp", System.getProperty("java.class.path"),
+                CustomerAccountServiceApplication.class.getName(),
+                "--spring.profiles.active=prod",
+                "--accounts.storage.path=" + path,
+                "--server.port=" + port,
+                "--spring.main.banner-mode=off")
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/v1/accounts/SEED-00000001")).build();
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT_NANOS) {
+                assertThat(process.isAlive()).as("application exited, see " + log).isTrue();
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == expectedStatus) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException notListeningYet) {
+                    // Tomcat has not bound the port yet
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("no response within " + TimeUnit.NANOSECONDS.toSeconds(TIMEOUT_NANOS) + " s, see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.onec.bms.customer_account_service.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Loads through {@link FencedCaffeineCache#get(Object, java.util.concurrent.Callable)}, as
+ * {@code @Cacheable(sync = true)} makes them; fencing against evictions is covered by AccountCacheTests
+ */
+class FencedCaffeineCacheTests {
+
+    private static final int CALLERS = 8;
+
+    private final FencedCaffeineCache cache = new FencedCaffeineCache("test", Caffeine.newBuilder().build(), true);
+
+    @Test
+    void concurrentLoadsOfOneKeyRunOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            CompletableFuture<String> result = new CompletableFuture<>();
+            results.add(result);
+            callers.add(Thread.ofPlatform().start(() -> result.complete(cache.get("key", () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "value";
+            }))));
+        }
+
+        // One caller waits in the loader, the others for its lock
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (callers.stream().anyMatch(caller -> caller.getState() != Thread.State.WAITING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (CompletableFuture<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(cache, "loading")).isEmpty();
+    }
+
+    @Test
+    void loadsOfOtherKeysDoNotWait() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch otherLoaded = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("first", () -> {
+            loading.countDown();
+            // Only returns once the other key has been loaded meanwhile
+            return otherLoaded.await(10, TimeUnit.SECONDS) ? "first" : "timed out";
+        }));
+        assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(cache.get("second", () -> "second")).isEqualTo("second");
+        otherLoaded.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(cache.get("first")).isNotNull();
+    }
+
+    @Test
+    void aFailedLoadIsRetriedByTheNextCaller() {
+        AtomicInteger loads = new AtomicInteger();
+        assertThatThrownBy(() -> cache.get("key", () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("store unavailable");
+        })).isInstanceOf(Cache.ValueRetrievalException.class).hasRootCauseMessage("store unavailable");
+
+        assertThat(cache.get("key", () -> loads.incrementAndGet() + "")).isEqualTo("2");
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(cache, "loading")).isEmpty();
+    }
+}
@@ -0,0 +1,139 @@
+package com.onec.bms.customer_account_service.config;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.repository.AccountChangeRepository;
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Controller and repository metrics, recorded into a SimpleMeterRegistry
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics-test")
+@AutoConfigureMockMvc
+class MetricsConfigTests {
+
+    private static final String ACCOUNT = """
+            {"accountNumber":"METRICS-000001","accountType":"SAVINGS","accountBalance":"10.00",
+             "accountCustomerId":"CUST-METRICS","accountCustomerName":"Metrics Customer"}
+            """;
+
+    @TestConfiguration
+    static class SimpleRegistryConfig {
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SimpleMeterRegistry registry;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountChangeRepository accountChangeRepository;
+
+    @Test
+    void controllerMethodsAreTimedByEndpointMethodAndOutcome() throws Exception {
+        long found = requests("getAccountByNumber", "GET", "ok");
+        long missing = requests("getAccountByNumber", "GET", "not_found");
+
+        mockMvc.perform(post("/api/v1/accounts").contentType(MediaType.APPLICATION_JSON).content(ACCOUNT))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/accounts/METRICS-000001")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/accounts/METRICS-000001")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/accounts/METRICS-MISSING")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/v1/accounts").contentType(MediaType.APPLICATION_JSON).content("not json"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(requests("createAccount", "POST", "ok")).isEqualTo(1);
+        assertThat(requests("createAccount", "POST", "client_error")).isEqualTo(1);
+        assertThat(requests("getAccountByNumber", "GET", "ok")).isEqualTo(found + 2);
+        assertThat(requests("getAccountByNumber", "GET", "not_found")).isEqualTo(missing + 1);
+        Timer timer = registry.get(ControllerMetricsInterceptor.METRIC)
+                .tags("endpoint", "getAccountByNumber", "method", "GET", "outcome", "ok").timer();
+        assertThat(timer.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    void repositoryMethodsAreTimedAndCountRows() {
+        long queries = queries("findByAccountCustomerId", "success");
+        long failures = queries("findById", "error");
+        DistributionSummary before = registry.find(RepositoryMetricsInterceptor.ROWS_METRIC)
+                .tags("repository", "AccountRepository", "query", "findByAccountCustomerId").summary();
+        long calls = before == null ? 0 : before.count();
+        double rows = before == null ? 0 : before.totalAmount();
+        accountRepository.saveAll(List.of(account("METRICS-000002"), account("METRICS-000003")));
+
+        assertThat(accountRepository.findByAccountCustomerId("CUST-METRICS-REPO")).hasSize(2);
+        assertThat(accountRepository.findByAccountCustomerId("CUST-METRICS-NONE")).isEmpty();
+        assertThatThrownBy(() -> accountRepository.findById(null)).isInstanceOf(RuntimeException.class);
+
+        assertThat(queries("findByAccountCustomerId", "success")).isEqualTo(queries + 2);
+        assertThat(queries("findById", "error")).isEqualTo(failures + 1);
+        DistributionSummary summary = registry.get(RepositoryMetricsInterceptor.ROWS_METRIC)
+                .tags("repository", "AccountRepository", "query", "findByAccountCustomerId").summary();
+        assertThat(summary.count()).isEqualTo(calls + 2);
+        assertThat(summary.totalAmount()).isEqualTo(rows + 2);
+        assertThat(summary.getId().getBaseUnit()).isEqualTo("rows");
+        // Nothing is counted as rows for a call that failed
+        assertThat(registry.find(RepositoryMetricsInterceptor.ROWS_METRIC).tag("query", "findById").summary())
+                .isNull();
+    }
+
+    @Test
+    void repositoryMethodsAreTaggedWithTheirRepository() {
+        long changeQueries = queries("AccountChangeRepository", "findLastSequence", "success");
+
+        accountChangeRepository.findLastSequence();
+
+        assertThat(queries("AccountChangeRepository", "findLastSequence", "success")).isEqualTo(changeQueries + 1);
+        assertThat(registry.find(RepositoryMetricsInterceptor.QUERY_METRIC)
+                .tags("repository", "AccountRepository", "query", "findLastSequence").timer()).isNull();
+    }
+
+    private static Account account(String accountNumber) {
+        return new Account(accountNumber, "SAVINGS", "ACTIVE", "10.00", "USD", "2024-01-15", null,
+                null, "MAIN_BRANCH", "CUST-METRICS-REPO", "Metrics Customer", null, null, null, null, null, null);
+    }
+
+    private long requests(String endpoint, String method, String outcome) {
+        Timer timer = registry.find(ControllerMetricsInterceptor.METRIC)
+                .tags("endpoint", endpoint, "method", method, "outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private long queries(String query, String outcome) {
+        return queries("AccountRepository", query, outcome);
+    }
+
+    private long queries(String repository, String query, String outcome) {
+        Timer timer = registry.find(RepositoryMetricsInterceptor.QUERY_METRIC)
+                .tags("repository", repository, "query", query, "outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,139 @@
+package com.onec.bms.customer_account_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.BulkCreateResult;
+import com.onec.bms.customer_account_service.model.BulkItemResult;
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-account outcomes of POST /api/v1/accounts/bulk, with chunks of three accounts
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-test",
+        "accounts.bulk.chunk-size=3"
+})
+@AutoConfigureMockMvc
+class CustomerAccountControllerBulkTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void everyAccountOfABatchGetsItsOwnOutcome() throws Exception {
+        String batch = """
+                [
+                  {"accountNumber":"BULK-00","accountType":"SAVINGS","accountBalance":"10.00",
+                   "accountCustomerId":"CUST-BULK","accountCustomerName":"Bulk Customer"},
+                  {"accountNumber":"BULK-01","accountType":"SAVINGS","accountBalance":"10.00",
+                   "accountCustomerName":"Bulk Customer"},
+                  {"accountNumber":"BULK-02","accountType":"SAVINGS","accountBalance":"12.3.4",
+                   "accountCustomerId":"CUST-BULK","accountCustomerName":"Bulk Customer"},
+                  {"accountNumber":"BULK-03","accountType":"CHECKING","accountBalance":"-5.50",
+                   "accountCustomerId":"CUST-BULK","accountCustomerName":"Bulk Customer"},
+                  {"accountNumber":"BULK-04","accountType":{"nested":[1, 2]},"accountBalance":"1.00",
+                   "accountCustomerId":"CUST-BULK","accountCustomerName":"Bulk Customer"},
+                  {"accountNumber":"BULK-00","accountType":"SAVINGS","accountBalance":"10.00",
+                   "accountCustomerId":"CUST-BULK","accountCustomerName":"Duplicate"},
+                  {"accountType":"BUSINESS","accountBalance":"0.00",
+                   "accountCustomerId":"CUST-BULK","accountCustomerName":"Bulk Customer"},
+                  {"accountNumber":"BULK-07","accountType":"SAVINGS","accountBalance":"7.00",
+                   "accountCustomerId":"CUST-BULK","accountCustomerName":"Bulk Customer"}
+                ]
+                """;
+
+        BulkCreateResult result = bulk(MediaType.APPLICATION_JSON, batch);
+
+        assertThat(result.getItems()).extracting(BulkItemResult::getIndex)
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+        assertThat(result.getItems()).extracting(BulkItemResult::getStatus).containsExactly(
+                BulkItemResult.CREATED, BulkItemResult.FAILED, BulkItemResult.FAILED, BulkItemResult.CREATED,
+                BulkItemResult.FAILED, BulkItemResult.FAILED, BulkItemResult.CREATED, BulkItemResult.CREATED);
+        assertThat(result.getCreated()).isEqualTo(4);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getItems().get(1).getError()).isEqualTo("accountCustomerId is required");
+        assertThat(result.getItems().get(2).getError()).startsWith("Malformed account");
+        assertThat(result.getItems().get(4).getError()).startsWith("Malformed account");
+        assertThat(result.getItems().get(5).getAccountNumber()).isEqualTo("BULK-00");
+        assertThat(result.getItems().get(6).getAccountNumber()).startsWith("ACC-");
+
+        // Created accounts got the single-create defaults; the duplicate did not overwrite the original
+        Account first = accountRepository.findByAccountNumber("BULK-00").orElseThrow();
+        assertThat(first.getAccountCustomerName()).isEqualTo("Bulk Customer");
+        assertThat(first.getAccountStatus()).isEqualTo("ACTIVE");
+        assertThat(first.getAccountCurrency()).isNotNull();
+        assertThat(first.getAccountOpeningDate()).isNotNull();
+        assertThat(accountRepository.findByAccountNumber("BULK-03").orElseThrow().getAccountBalance())
+                .isEqualTo("-5.50");
+        assertThat(accountRepository.findByAccountNumber("BULK-07")).isPresent();
+        assertThat(accountRepository.findByAccountNumber("BULK-01")).isEmpty();
+        assertThat(accountRepository.findByAccountNumber("BULK-02")).isEmpty();
+        assertThat(accountRepository.findByAccountNumber("BULK-04")).isEmpty();
+    }
+
+    @Test
+    void ndjsonStopsAtTheFirstSyntaxError() throws Exception {
+        String lines = """
+                {"accountNumber":"BULK-10","accountType":"SAVINGS","accountBalance":"1.00","accountCustomerId":"CUST-BULK","accountCustomerName":"Bulk Customer"}
+                {"accountNumber":"BULK-11","accountType":"SAVINGS","accountBalance":"1.00",
+                {"accountNumber":"BULK-12","accountType":"SAVINGS","accountBalance":"1.00","accountCustomerId":"CUST-BULK","accountCustomerName":"Bulk Customer"}
+                """;
+
+        BulkCreateResult result = bulk(MediaType.APPLICATION_NDJSON, lines);
+
+        assertThat(result.getItems()).extracting(BulkItemResult::getIndex).containsExactly(0, 1);
+        assertThat(result.getItems()).extracting(BulkItemResult::getStatus)
+                .containsExactly(BulkItemResult.CREATED, BulkItemResult.FAILED);
+        assertThat(result.getItems().get(1).getError()).startsWith("Malformed account");
+        assertThat(accountRepository.findByAccountNumber("BULK-10")).isPresent();
+        assertThat(accountRepository.findByAccountNumber("BULK-12")).isEmpty();
+    }
+
+    @Test
+    void currenciesWithoutTwoFractionDigitsAreRefused() throws Exception {
+        String yen = """
+                {"accountNumber":"BULK-20","accountType":"SAVINGS","accountBalance":"100.00","accountCurrency":"JPY",\
+                "accountCustomerId":"CUST-BULK","accountCustomerName":"Bulk Customer"}
+                """;
+        mockMvc.perform(post("/api/v1/accounts").contentType(MediaType.APPLICATION_JSON).content(yen))
+                .andExpect(status().isBadRequest());
+
+        BulkCreateResult result = bulk(MediaType.APPLICATION_NDJSON, yen);
+        assertThat(result.getItems()).extracting(BulkItemResult::getStatus).containsExactly(BulkItemResult.FAILED);
+        assertThat(result.getItems().get(0).getError()).startsWith("Unsupported currency JPY");
+        assertThat(accountRepository.findByAccountNumber("BULK-20")).isEmpty();
+
+        mockMvc.perform(post("/api/v1/accounts").contentType(MediaType.APPLICATION_JSON)
+                        .content(yen.replace("JPY", "EUR")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(patch("/api/v1/accounts/BULK-20").contentType("application/merge-patch+json")
+                        .content("{\"accountCurrency\":\"BHD\"}"))
+                .andExpect(status().isBadRequest());
+        assertThat(accountRepository.findByAccountNumber("BULK-20").orElseThrow().getAccountCurrency())
+                .isEqualTo("EUR");
+    }
+
+    private BulkCreateResult bulk(MediaType contentType, String body) throws Exception {
+        byte[] response = mockMvc.perform(post("/api/v1/accounts/bulk").contentType(contentType).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readValue(response, BulkCreateResult.class);
+    }
+}
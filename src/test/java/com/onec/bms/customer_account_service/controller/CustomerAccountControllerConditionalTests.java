@@ -0,0 +1,165 @@
+package com.onec.bms.customer_account_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static com.onec.bms.customer_account_service.StatementBudget.assertAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional requests: ETag, If-None-Match, If-Modified-Since and If-Match
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CustomerAccountControllerConditionalTests {
+
+    private static final String ACCOUNT = """
+            {"accountNumber":"ETAG-000001","accountType":"SAVINGS","accountStatus":"ACTIVE",
+             "accountBalance":"10.00","accountCurrency":"USD","accountCustomerId":"CUST-ETAG",
+             "accountCustomerName":"Etag Customer"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void unchangedAccountsAnswerNotModified() throws Throwable {
+        mockMvc.perform(post("/api/v1/accounts").contentType(MediaType.APPLICATION_JSON).content(ACCOUNT))
+                .andExpect(status().isCreated());
+        MvcResult first = mockMvc.perform(get("/api/v1/accounts/ETAG-000001"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"0-");
+
+        // Served from the cached account: no statement, no body
+        assertAtMost(0, () -> mockMvc.perform(get("/api/v1/accounts/ETAG-000001")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string("")));
+        mockMvc.perform(get("/api/v1/accounts/ETAG-000001")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+
+        // A write changes the ETag and evicts the account; revalidating then reads only the version
+        String patched = mockMvc.perform(patch("/api/v1/accounts/ETAG-000001/status")
+                        .contentType(MediaType.TEXT_PLAIN).content("SUSPENDED"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(patched).isNotEqualTo(eTag).startsWith("\"1-");
+        mockMvc.perform(get("/api/v1/accounts/ETAG-000001").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, patched));
+        mockMvc.perform(patch("/api/v1/accounts/ETAG-000001/balance")
+                        .contentType(MediaType.TEXT_PLAIN).content("20.00"))
+                .andExpect(status().isOk());
+        String current = mockMvc.perform(post("/api/v1/accounts/ETAG-000001/credit")
+                        .contentType(MediaType.TEXT_PLAIN).content("5.00"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertAtMost(1, () -> mockMvc.perform(get("/api/v1/accounts/ETAG-000001")
+                        .header(HttpHeaders.IF_NONE_MATCH, current))
+                .andExpect(status().isNotModified()));
+
+        // The customer list is validated from the versions of its accounts
+        String list = mockMvc.perform(get("/api/v1/accounts/customer/CUST-ETAG"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(list).startsWith("W/");
+        assertAtMost(1, () -> mockMvc.perform(get("/api/v1/accounts/customer/CUST-ETAG")
+                        .header(HttpHeaders.IF_NONE_MATCH, list))
+                .andExpect(status().isNotModified()));
+
+        // Each set of fields has its own ETag, revalidated the same way
+        String narrow = mockMvc.perform(get("/api/v1/accounts/customer/CUST-ETAG")
+                        .param("fields", "accountNumber,accountStatus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(narrow).startsWith("W/").isNotEqualTo(list);
+        mockMvc.perform(get("/api/v1/accounts/customer/CUST-ETAG").param("fields", "accountNumber,accountStatus")
+                        .header(HttpHeaders.IF_NONE_MATCH, narrow))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/accounts/customer/CUST-ETAG").header(HttpHeaders.IF_NONE_MATCH, narrow))
+                .andExpect(status().isOk());
+
+        // If-Match: a stale ETag is refused, the current one applies
+        mockMvc.perform(put("/api/v1/accounts/ETAG-000001").header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content(ACCOUNT))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/v1/accounts/ETAG-000001").header(HttpHeaders.IF_MATCH, "W/" + current)
+                        .contentType("application/merge-patch+json").content("{\"accountDescription\":\"Weak\"}"))
+                .andExpect(status().isPreconditionFailed());
+        String updated = mockMvc.perform(put("/api/v1/accounts/ETAG-000001").header(HttpHeaders.IF_MATCH, current)
+                        .contentType(MediaType.APPLICATION_JSON).content(ACCOUNT))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(patch("/api/v1/accounts/ETAG-000001").header(HttpHeaders.IF_MATCH, updated)
+                        .contentType("application/merge-patch+json").content("{\"accountDescription\":\"Matched\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/accounts/customer/CUST-ETAG").header(HttpHeaders.IF_NONE_MATCH, list))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/v1/accounts/ETAG-MISSING").header(HttpHeaders.IF_MATCH, "*")
+                        .contentType("application/merge-patch+json").content("{\"accountDescription\":\"None\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void jsonAndCborHaveTheirOwnETags() throws Throwable {
+        mockMvc.perform(post("/api/v1/accounts").contentType(MediaType.APPLICATION_JSON)
+                        .content(ACCOUNT.replace("ETAG-000001", "ETAG-000002").replace("CUST-ETAG", "CUST-ETAG-CBOR")))
+                .andExpect(status().isCreated());
+        String json = mockMvc.perform(get("/api/v1/accounts/ETAG-000002"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // The JSON ETag does not validate a CBOR copy, nor the other way round
+        String cbor = mockMvc.perform(get("/api/v1/accounts/ETAG-000002").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(cbor).isNotEqualTo(json);
+        mockMvc.perform(get("/api/v1/accounts/ETAG-000002").header(HttpHeaders.IF_NONE_MATCH, cbor))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, json));
+        mockMvc.perform(get("/api/v1/accounts/ETAG-000002").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cbor))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        // A client preferring CBOR gets CBOR and its ETag
+        mockMvc.perform(get("/api/v1/accounts/ETAG-000002").header(HttpHeaders.ACCEPT,
+                        "application/json;q=0.5, application/cbor").header(HttpHeaders.IF_NONE_MATCH, cbor))
+                .andExpect(status().isNotModified());
+
+        // Lists too
+        String jsonList = mockMvc.perform(get("/api/v1/accounts/customer/CUST-ETAG-CBOR"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/v1/accounts/customer/CUST-ETAG-CBOR").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonList))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+
+        // Either ETag names the same version for If-Match
+        mockMvc.perform(patch("/api/v1/accounts/ETAG-000002").header(HttpHeaders.IF_MATCH, cbor)
+                        .contentType("application/merge-patch+json").content("{\"accountDescription\":\"Cbor\"}"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,93 @@
+package com.onec.bms.customer_account_service.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.onec.bms.customer_account_service.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JSON and CBOR responses, written from the per-account payload cache
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CustomerAccountControllerEncodingTests {
+
+    private static final String ACCOUNT = """
+            {"accountNumber":"CBOR-000001","accountType":"SAVINGS","accountStatus":"ACTIVE",
+             "accountBalance":"10.00","accountCurrency":"USD","accountCustomerId":"CUST-CBOR",
+             "accountCustomerName":"Cbor Customer","accountCustomerCity":"Zürich"}
+            """;
+
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void cborCarriesTheSameFieldsAsJson() throws Exception {
+        mockMvc.perform(post("/api/v1/accounts").contentType(MediaType.APPLICATION_JSON).content(ACCOUNT))
+                .andExpect(status().isCreated());
+
+        byte[] json = body(get("/api/v1/accounts/CBOR-000001"), MediaType.APPLICATION_JSON);
+        byte[] cbor = body(get("/api/v1/accounts/CBOR-000001").accept(MediaType.APPLICATION_CBOR),
+                MediaType.APPLICATION_CBOR);
+        Map<String, Object> fromJson = objectMapper.readValue(json, new TypeReference<>() {});
+        assertThat(CBOR.readValue(cbor, new TypeReference<Map<String, Object>>() {})).isEqualTo(fromJson);
+        assertThat(fromJson).containsEntry("accountCustomerCity", "Zürich").containsEntry("accountBalance", "10.00");
+        assertThat(cbor.length).isLessThan(json.length);
+
+        // Served again from the cached payload; a write replaces it with the new version
+        assertThat(cacheManager.getCache(CacheConfig.ACCOUNT_PAYLOADS_CACHE).get("CBOR-000001")).isNotNull();
+        assertThat(body(get("/api/v1/accounts/CBOR-000001").accept(MediaType.APPLICATION_CBOR),
+                MediaType.APPLICATION_CBOR)).isEqualTo(cbor);
+        mockMvc.perform(patch("/api/v1/accounts/CBOR-000001/status")
+                        .contentType(MediaType.TEXT_PLAIN).content("SUSPENDED"))
+                .andExpect(status().isOk());
+        Map<String, Object> patched = CBOR.readValue(body(get("/api/v1/accounts/CBOR-000001")
+                .accept(MediaType.APPLICATION_CBOR), MediaType.APPLICATION_CBOR), new TypeReference<>() {});
+        assertThat(patched).containsEntry("accountStatus", "SUSPENDED");
+
+        // Lists are arrays of the cached payloads, in either encoding; projections are encoded as usual
+        List<Map<String, Object>> jsonList = objectMapper.readValue(
+                body(get("/api/v1/accounts/customer/CUST-CBOR"), MediaType.APPLICATION_JSON), new TypeReference<>() {});
+        List<Map<String, Object>> cborList = CBOR.readValue(
+                body(get("/api/v1/accounts/customer/CUST-CBOR").accept(MediaType.APPLICATION_CBOR),
+                        MediaType.APPLICATION_CBOR), new TypeReference<>() {});
+        assertThat(cborList).isEqualTo(jsonList).hasSize(1);
+        List<Map<String, Object>> projected = CBOR.readValue(body(get("/api/v1/accounts/customer/CUST-CBOR")
+                        .param("fields", "accountNumber,accountStatus").accept(MediaType.APPLICATION_CBOR),
+                MediaType.APPLICATION_CBOR), new TypeReference<>() {});
+        assertThat(projected).containsExactly(Map.of("accountNumber", "CBOR-000001", "accountStatus", "SUSPENDED"));
+    }
+
+    private byte[] body(RequestBuilder request, MediaType expected) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(expected))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
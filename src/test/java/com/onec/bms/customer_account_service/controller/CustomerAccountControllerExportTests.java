@@ -0,0 +1,73 @@
+package com.onec.bms.customer_account_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onec.bms.customer_account_service.AccountTestData;
+import com.onec.bms.customer_account_service.model.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * NDJSON export of GET /api/v1/accounts/export
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:export-test")
+@AutoConfigureMockMvc
+class CustomerAccountControllerExportTests {
+
+    /** More rows than the 500-row fetch size of the export cursor, so it is refilled twice */
+    private static final int ROWS = 1_234;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportWritesOneAccountPerLine() throws Exception {
+        AccountTestData.seed(jdbcTemplate, ROWS);
+        List<String> expected = jdbcTemplate.queryForList(
+                "SELECT account_number FROM accounts ORDER BY account_number", String.class);
+
+        MvcResult started = mockMvc.perform(get("/api/v1/accounts/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body).endsWith("}\n");
+        List<String> exported = new ArrayList<>();
+        for (String line : body.substring(0, body.length() - 1).split("\n", -1)) {
+            Account account = objectMapper.readValue(line, Account.class);
+            exported.add(account.getAccountNumber());
+        }
+        assertThat(exported).containsExactlyElementsOf(expected);
+
+        Account seeded = objectMapper.readValue(body.lines()
+                .filter(line -> line.contains("\"SEED-00000042\""))
+                .findFirst().orElseThrow(), Account.class);
+        assertThat(seeded.getAccountType()).isEqualTo("SAVINGS");
+        assertThat(seeded.getAccountBranch()).isEqualTo("BRANCH-42");
+    }
+}
@@ -0,0 +1,157 @@
+package com.onec.bms.customer_account_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onec.bms.customer_account_service.AccountTestData;
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.AccountPage;
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cursor pagination and filters of GET /api/v1/accounts/page
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:page-test")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerAccountControllerPageTests {
+
+    private static final int ROWS = 300;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        AccountTestData.seed(jdbcTemplate, ROWS);
+    }
+
+    @Test
+    void cursorsWalkEveryAccountOnceInOrder() throws Exception {
+        List<String> walked = walk(7, null, null);
+
+        assertThat(walked).doesNotHaveDuplicates()
+                .isSortedAccordingTo(Comparator.naturalOrder())
+                .containsExactlyElementsOf(expected(account -> true));
+    }
+
+    @Test
+    void filtersSelectOnlyMatchingAccounts() throws Exception {
+        assertThat(walk(40, "type", "CHECKING"))
+                .containsExactlyElementsOf(expected(account -> "CHECKING".equals(account.getAccountType())))
+                .isNotEmpty();
+        assertThat(walk(40, "status", "SUSPENDED"))
+                .containsExactlyElementsOf(expected(account -> "SUSPENDED".equals(account.getAccountStatus())))
+                .isNotEmpty();
+        assertThat(walk(3, "branch", "BRANCH-7"))
+                .containsExactlyElementsOf(expected(account -> "BRANCH-7".equals(account.getAccountBranch())))
+                .hasSize(ROWS / AccountTestData.BRANCHES);
+
+        // Filters combine
+        AccountPage page = page(get("/api/v1/accounts/page")
+                .param("type", "BUSINESS").param("status", "INACTIVE").param("branch", "BRANCH-14"));
+        assertThat(page.getAccounts()).extracting(Account::getAccountNumber)
+                .containsExactlyElementsOf(expected(account -> "BUSINESS".equals(account.getAccountType())
+                        && "INACTIVE".equals(account.getAccountStatus())
+                        && "BRANCH-14".equals(account.getAccountBranch())))
+                .isNotEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void malformedOrTamperedCursorsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/accounts/page").param("cursor", "not a cursor!"))
+                .andExpect(status().isBadRequest());
+
+        String cursor = page(get("/api/v1/accounts/page").param("limit", "5")).getNextCursor();
+        // Padding, or setting the unused low bit of the last character, decodes to the same account
+        // number, but is not a cursor the service issued
+        mockMvc.perform(get("/api/v1/accounts/page").param("cursor", cursor + "=="))
+                .andExpect(status().isBadRequest());
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        char last = cursor.charAt(cursor.length() - 1);
+        String tampered = cursor.substring(0, cursor.length() - 1) + alphabet.charAt(alphabet.indexOf(last) ^ 1);
+        mockMvc.perform(get("/api/v1/accounts/page").param("cursor", tampered))
+                .andExpect(status().isBadRequest());
+        // Valid Base64, but not UTF-8
+        String notUtf8 = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[] {(byte) 0xC3, 0x28});
+        mockMvc.perform(get("/api/v1/accounts/page").param("cursor", notUtf8))
+                .andExpect(status().isBadRequest());
+
+        // A well-formed cursor past the last account is simply the end
+        String pastTheEnd = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("~".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/v1/accounts/page").param("cursor", pastTheEnd))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    /**
+     * Follow the next cursors from the first page to the last
+     */
+    private List<String> walk(int limit, String filter, String value) throws Exception {
+        List<String> accountNumbers = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/v1/accounts/page").param("limit", String.valueOf(limit));
+            if (filter != null) {
+                request.param(filter, value);
+            }
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            AccountPage page = page(request);
+            assertThat(page.getAccounts()).hasSizeLessThanOrEqualTo(limit);
+            if (page.getNextCursor() != null) {
+                assertThat(page.getAccounts()).hasSize(limit);
+            }
+            page.getAccounts().forEach(account -> accountNumbers.add(account.getAccountNumber()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return accountNumbers;
+    }
+
+    private AccountPage page(MockHttpServletRequestBuilder request) throws Exception {
+        byte[] body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readValue(body, AccountPage.class);
+    }
+
+    private List<String> expected(Predicate<Account> filter) {
+        return accountRepository.findAll().stream()
+                .filter(filter)
+                .map(Account::getAccountNumber)
+                .sorted()
+                .toList();
+    }
+}
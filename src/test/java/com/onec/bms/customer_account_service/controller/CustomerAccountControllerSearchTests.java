@@ -0,0 +1,82 @@
+package com.onec.bms.customer_account_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Customer name search of GET /api/v1/accounts/search, through the trigram index and,
+ * for short queries, the database prefix scan
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:search-test")
+@AutoConfigureMockMvc
+class CustomerAccountControllerSearchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void searchRanksFoldsAccentsAndFollowsChanges() throws Exception {
+        create("SEARCH-1", "Quorvath Annabel");
+        create("SEARCH-2", "Élise  QUORVATH");
+        create("SEARCH-3", "Ann McQuorvath");
+        create("SEARCH-4", "Quorvath Li");
+        create("SEARCH-5", "Quentin Ward");
+
+        // Names starting with the text, then a word starting with it, then anywhere
+        search("QUÓRVATH").andExpect(jsonPath("$[*].accountNumber")
+                .value(contains("SEARCH-4", "SEARCH-1", "SEARCH-2", "SEARCH-3")));
+        search("elise quorvath").andExpect(jsonPath("$[*].accountNumber").value(contains("SEARCH-2")));
+        mockMvc.perform(get("/api/v1/accounts/search").param("name", "quorvath").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].accountNumber").value(contains("SEARCH-4", "SEARCH-1")))
+                .andExpect(jsonPath("$[0].accountCustomerName").value("Quorvath Li"));
+
+        // Shorter than a trigram: only names starting with the text, by name then account number
+        search("Qu").andExpect(jsonPath("$[*].accountNumber")
+                .value(contains("SEARCH-5", "SEARCH-1", "SEARCH-4")));
+        search("É").andExpect(jsonPath("$[*].accountNumber").value(contains("SEARCH-2")));
+        search("  ").andExpect(jsonPath("$").value(empty()));
+
+        // Renames and deletes are picked up once committed
+        mockMvc.perform(put("/api/v1/accounts/SEARCH-4").contentType(MediaType.APPLICATION_JSON)
+                        .content(account("SEARCH-4", "Li Brandt")))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/accounts/SEARCH-1")).andExpect(status().isOk());
+        search("quorvath").andExpect(jsonPath("$[*].accountNumber").value(contains("SEARCH-2", "SEARCH-3")));
+        search("brandt").andExpect(jsonPath("$[*].accountNumber").value(contains("SEARCH-4")));
+        search("qu").andExpect(jsonPath("$[*].accountNumber").value(contains("SEARCH-5")));
+    }
+
+    private void create(String accountNumber, String customerName) throws Exception {
+        mockMvc.perform(post("/api/v1/accounts").contentType(MediaType.APPLICATION_JSON)
+                        .content(account(accountNumber, customerName)))
+                .andExpect(status().isCreated());
+    }
+
+    private ResultActions search(String name) throws Exception {
+        return mockMvc.perform(get("/api/v1/accounts/search").param("name", name))
+                .andExpect(status().isOk());
+    }
+
+    private static String account(String accountNumber, String customerName) {
+        return """
+                {"accountNumber":"%s","accountType":"SAVINGS","accountStatus":"ACTIVE",
+                 "accountBalance":"10.00","accountCurrency":"USD","accountCustomerId":"CUST-SEARCH",
+                 "accountCustomerName":"%s"}
+                """.formatted(accountNumber, customerName);
+    }
+}
@@ -0,0 +1,93 @@
+package com.onec.bms.customer_account_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.onec.bms.customer_account_service.StatementBudget.assertAtMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the CustomerAccountController endpoints
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CustomerAccountControllerStatementTests {
+
+    private static final String ACCOUNT = """
+            {"accountNumber":"BUDGET-000001","accountType":"SAVINGS","accountStatus":"ACTIVE",
+             "accountBalance":"10.00","accountCurrency":"USD","accountCustomerId":"CUST-BUDGET",
+             "accountCustomerName":"Budget Customer"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void endpointsStayWithinStatementBudget() throws Throwable {
+        // Every write also appends one row to the account change log in its transaction
+        assertAtMost(2, () -> mockMvc.perform(post("/api/v1/accounts")
+                .contentType(MediaType.APPLICATION_JSON).content(ACCOUNT))
+                .andExpect(status().isCreated()));
+
+        // A miss loads the account, the next lookup is served from the cache
+        assertAtMost(1, () -> mockMvc.perform(get("/api/v1/accounts/BUDGET-000001"))
+                .andExpect(status().isOk()));
+        assertAtMost(0, () -> mockMvc.perform(get("/api/v1/accounts/BUDGET-000001"))
+                .andExpect(status().isOk()));
+
+        // A field projection reads the requested columns in one query and returns only them
+        assertAtMost(1, () -> mockMvc.perform(get("/api/v1/accounts/customer/CUST-BUDGET")
+                        .param("fields", "accountBalance,accountNumber"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].accountNumber").value("BUDGET-000001"))
+                .andExpect(jsonPath("$[0].accountBalance").value("10.00"))
+                .andExpect(jsonPath("$[0].accountCustomerName").doesNotExist())
+                .andExpect(jsonPath("$[0].version").doesNotExist()));
+        assertAtMost(0, () -> mockMvc.perform(get("/api/v1/accounts").param("fields", "accountNumber,password"))
+                .andExpect(status().isBadRequest()));
+
+        // A batch lookup reads what the cache lacks with one IN query
+        assertAtMost(1, () -> mockMvc.perform(post("/api/v1/accounts/lookup")
+                .contentType(MediaType.APPLICATION_JSON).content("[\"BUDGET-000001\", \"BUDGET-000404\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found").value(1))
+                .andExpect(jsonPath("$.missing[0]").value("BUDGET-000404")));
+
+        // Updates are a single UPDATE that also returns the previous row, with no read before the write
+        assertAtMost(2, () -> mockMvc.perform(put("/api/v1/accounts/BUDGET-000001")
+                .contentType(MediaType.APPLICATION_JSON).content(ACCOUNT))
+                .andExpect(status().isOk()));
+
+        assertAtMost(2, () -> mockMvc.perform(patch("/api/v1/accounts/BUDGET-000001/status")
+                .contentType(MediaType.TEXT_PLAIN).content("SUSPENDED"))
+                .andExpect(status().isOk()));
+
+        assertAtMost(2, () -> mockMvc.perform(patch("/api/v1/accounts/BUDGET-000001/balance")
+                .contentType(MediaType.TEXT_PLAIN).content("15.00"))
+                .andExpect(status().isOk()));
+
+        assertAtMost(2, () -> mockMvc.perform(patch("/api/v1/accounts/BUDGET-000001")
+                .contentType("application/merge-patch+json")
+                .content("{\"accountDescription\":\"Patched\",\"version\":3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountDescription").value("Patched"))
+                .andExpect(jsonPath("$.accountStatus").value("SUSPENDED"))
+                .andExpect(jsonPath("$.version").value(4)));
+
+        // A single DELETE that also returns the deleted row for the aggregates
+        assertAtMost(2, () -> mockMvc.perform(delete("/api/v1/accounts/BUDGET-000001"))
+                .andExpect(status().isOk()));
+        assertAtMost(1, () -> mockMvc.perform(delete("/api/v1/accounts/BUDGET-000001"))
+                .andExpect(status().isNotFound()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.onec.bms.customer_account_service.controller;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReactiveAccountControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void readsAccountsWrittenThroughJpa() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            accountService.createAccount(new Account("REACTIVE-00000" + i, "SAVINGS", "ACTIVE", i + "0.00", "USD",
+                    null, null, null, "MAIN_BRANCH", "CUST-REACTIVE", "Reactive Customer", null, null, null,
+                    null, null, null));
+        }
+
+        MvcResult single = mockMvc.perform(get("/api/v1/reactive/accounts/REACTIVE-000002"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(single))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountBalance").value("20.00"))
+                .andExpect(jsonPath("$.version").value(0));
+
+        MvcResult missing = mockMvc.perform(get("/api/v1/reactive/accounts/REACTIVE-MISSING"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(missing))
+                .andExpect(status().isNotFound());
+
+        MvcResult stream = mockMvc.perform(get("/api/v1/reactive/accounts/customer/CUST-REACTIVE/stream")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(stream))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+        assertThat(stream.getResponse().getContentAsString().lines())
+                .hasSize(3)
+                .allMatch(line -> line.contains("\"accountCustomerId\":\"CUST-REACTIVE\""));
+    }
+}
@@ -0,0 +1,87 @@
+package com.onec.bms.customer_account_service.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class BalancesTests {
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "1000.50                | 100050",
+            "7                      | 700",
+            "0.5                    | 50",
+            "1.500                  | 150",
+            "' 12.34 '              | 1234",
+            "+3.00                  | 300",
+            "-12.34                 | -1234",
+            "-0.01                  | -1",
+            "0.00                   | 0",
+            "92233720368547758.07   | 9223372036854775807",
+            "-92233720368547758.08  | -9223372036854775808"
+    })
+    void parsesToMinorUnits(String amount, long minorUnits) {
+        assertThat(Balances.parse(amount)).isEqualTo(minorUnits);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"1.005", "0.001", "-12.345"})
+    void refusesToRoundAwayFractions(String amount) {
+        assertThatIllegalArgumentException().isThrownBy(() -> Balances.parse(amount))
+                .withMessageContaining(amount);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"92233720368547758.08", "-92233720368547758.09", "1e30"})
+    void refusesAmountsThatDoNotFit(String amount) {
+        assertThatIllegalArgumentException().isThrownBy(() -> Balances.parse(amount));
+    }
+
+    @ParameterizedTest(name = "\"{0}\"")
+    @NullAndEmptySource
+    @ValueSource(strings = {" ", "abc", "12.3.4", "1,000.00", "$5.00", "5.00 USD", "--1"})
+    void refusesMalformedAmounts(String amount) {
+        assertThatIllegalArgumentException().isThrownBy(() -> Balances.parse(amount));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "100050                | 1000.50",
+            "0                     | 0.00",
+            "5                     | 0.05",
+            "50                    | 0.50",
+            "-5                    | -0.05",
+            "-1234                 | -12.34",
+            "9223372036854775807   | 92233720368547758.07",
+            "-9223372036854775808  | -92233720368547758.08"
+    })
+    void formatsWithTwoFractionDigits(long minorUnits, String amount) {
+        assertThat(Balances.format(minorUnits)).isEqualTo(amount);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"USD", "EUR", "GBP", "CHF"})
+    void acceptsCurrenciesWithTwoFractionDigits(String currency) {
+        Balances.checkCurrency(currency);
+    }
+
+    @ParameterizedTest(name = "\"{0}\"")
+    @NullAndEmptySource
+    @ValueSource(strings = {"JPY", "KRW", "BHD", "KWD", "XAU", "usd", "ABC"})
+    void refusesCurrenciesBalancesCannotBeHeldIn(String currency) {
+        assertThatIllegalArgumentException().isThrownBy(() -> Balances.checkCurrency(currency));
+    }
+
+    @Test
+    void formattedBalancesParseBack() {
+        long[] balances = {0, 1, -1, 99, -100, 123456789, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1};
+        for (long minorUnits : balances) {
+            assertThat(Balances.parse(Balances.format(minorUnits))).isEqualTo(minorUnits);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.onec.bms.customer_account_service.repository;
+
+import com.onec.bms.customer_account_service.AccountTestData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks through EXPLAIN that every AccountRepository finder is served by an index.
+ * The SQL mirrors what Hibernate generates for each finder.
+ */
+@DataJpaTest(showSql = false)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AccountRepositoryIndexTests {
+
+    private static final int ROWS = 50_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        AccountTestData.seed(jdbcTemplate, ROWS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "findByAccountNumber        | account_number = 'SEED-00000042'               | PRIMARY_KEY",
+            "findByAccountCustomerId    | account_customer_id = 'CUST-42'                | IDX_ACCOUNTS_CUSTOMER_ID",
+            "findByAccountType          | account_type = 'SAVINGS'                       | IDX_ACCOUNTS_TYPE",
+            "findByAccountStatus        | account_status = 'SUSPENDED'                   | IDX_ACCOUNTS_STATUS_TYPE",
+            "findByAccountBranch        | account_branch = 'BRANCH-7'                    | IDX_ACCOUNTS_BRANCH",
+            "findByAccountCustomerEmail | account_customer_email = 'customer42@example.com' | IDX_ACCOUNTS_CUSTOMER_EMAIL",
+            "findByBranchAndBalanceRange | account_branch = 'BRANCH-7' AND account_balance_minor BETWEEN 100 AND 5000 | IDX_ACCOUNTS_BRANCH_BALANCE",
+            "findByAccountCustomerNameNormalizedStartingWith | account_customer_name_normalized LIKE 'jose ga%' | IDX_ACCOUNTS_CUSTOMER_NAME_NORM"
+    })
+    void finderUsesIndex(String finder, String condition, String expectedIndex) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM accounts WHERE " + condition, String.class);
+
+        assertThat(plan).as(finder + " plan").doesNotContain("tableScan").contains(expectedIndex);
+    }
+}
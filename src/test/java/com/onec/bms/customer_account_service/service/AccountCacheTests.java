@@ -0,0 +1,84 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.config.CacheConfig;
+import com.onec.bms.customer_account_service.model.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AccountCacheTests {
+
+    private static final String ACCOUNT_NUMBER = "CACHE-000001";
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void lookupsAreCachedUntilTheAccountChanges() {
+        // A miss is cached too, and must not survive the account being created
+        assertThat(accountService.getAccountByNumber(ACCOUNT_NUMBER)).isEmpty();
+        assertThat(cacheManager.getCache(CacheConfig.ACCOUNTS_CACHE).get(ACCOUNT_NUMBER)).isNotNull();
+
+        Account account = new Account(ACCOUNT_NUMBER, "SAVINGS", "ACTIVE", "10.00", "USD", null, null,
+                null, "MAIN_BRANCH", "CUST-CACHE", "Cache Test", null, null, null, null, null, null);
+        accountService.createAccount(account);
+        assertThat(accountService.getAccountByNumber(ACCOUNT_NUMBER)).get()
+                .extracting(Account::getAccountBalance).isEqualTo("10.00");
+
+        accountService.updateAccountStatus(ACCOUNT_NUMBER, "SUSPENDED");
+        assertThat(accountService.getAccountByNumber(ACCOUNT_NUMBER)).get()
+                .extracting(Account::getAccountStatus).isEqualTo("SUSPENDED");
+
+        accountService.updateAccountBalance(ACCOUNT_NUMBER, "20.00");
+        assertThat(accountService.getAccountByNumber(ACCOUNT_NUMBER)).get()
+                .extracting(Account::getAccountBalance).isEqualTo("20.00");
+
+        accountService.creditAccount(ACCOUNT_NUMBER, 500);
+        assertThat(accountService.getAccountByNumber(ACCOUNT_NUMBER)).get()
+                .extracting(Account::getAccountBalance).isEqualTo("25.00");
+
+        accountService.addToBalance(ACCOUNT_NUMBER, -100);
+        assertThat(accountService.getAccountByNumber(ACCOUNT_NUMBER)).get()
+                .extracting(Account::getAccountBalance).isEqualTo("24.00");
+
+        Account changes = new Account(ACCOUNT_NUMBER, "SAVINGS", "ACTIVE", "24.00", "USD", null, null,
+                null, "MAIN_BRANCH", "CUST-CACHE", "Renamed Customer", null, null, null, null, null, null);
+        accountService.updateAccount(ACCOUNT_NUMBER, changes);
+        assertThat(accountService.getAccountByNumber(ACCOUNT_NUMBER)).get()
+                .extracting(Account::getAccountCustomerName).isEqualTo("Renamed Customer");
+
+        accountService.deleteAccount(ACCOUNT_NUMBER);
+        assertThat(accountService.getAccountByNumber(ACCOUNT_NUMBER)).isEmpty();
+    }
+
+    @Test
+    void aLookupOvertakenByAChangeIsNotCached() {
+        String accountNumber = "CACHE-000002";
+        accountService.createAccount(new Account(accountNumber, "SAVINGS", "ACTIVE", "10.00", "USD", null, null,
+                null, "MAIN_BRANCH", "CUST-CACHE", "Cache Test", null, null, null, null, null, null));
+        Account stale = accountService.getAccountByNumber(accountNumber).orElseThrow();
+        Cache cache = cacheManager.getCache(CacheConfig.ACCOUNTS_CACHE);
+        cache.evict(accountNumber);
+
+        // The change commits, and evicts the account, while the old row is being loaded
+        Optional<Account> loaded = cache.get(accountNumber, () -> {
+            accountService.updateAccountStatus(accountNumber, "SUSPENDED");
+            return Optional.of(stale);
+        });
+        assertThat(loaded).contains(stale);
+        assertThat(cache.get(accountNumber)).isNull();
+        assertThat(accountService.getAccountByNumber(accountNumber)).get()
+                .extracting(Account::getAccountStatus).isEqualTo("SUSPENDED");
+        assertThat(cache.get(accountNumber)).isNotNull();
+    }
+}
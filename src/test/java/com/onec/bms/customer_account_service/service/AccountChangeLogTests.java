@@ -0,0 +1,149 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.AccountChange;
+import com.onec.bms.customer_account_service.model.AccountChangeFeed;
+import com.onec.bms.customer_account_service.model.BulkStatusChange;
+import com.onec.bms.customer_account_service.repository.AccountChangeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The change log records every committed change in order, wakes waiting readers, and compacts
+ * superseded changes. Compaction runs on demand here, with no delay.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-log",
+        "accounts.changes.compact-after-ms=0"
+})
+class AccountChangeLogTests {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountChangeLog accountChangeLog;
+
+    @Autowired
+    private AccountChangeRepository changeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void changesAreLoggedInOrderAndCompacted() throws Exception {
+        long start = accountChangeLog.sequence();
+        accountService.createAccount(account("LOG-000001"));
+        accountService.createAccount(account("LOG-000002"));
+        accountService.updateAccountStatus("LOG-000001", "SUSPENDED");
+        accountService.addToBalance("LOG-000002", 150);
+        accountService.changeStatus(new BulkStatusChange("INACTIVE", null, "CUST-LOG", null));
+        accountService.deleteAccount("LOG-000002");
+        // A rolled back change leaves nothing behind
+        assertThatThrownBy(() -> accountService.createAccount(account("LOG-000001")))
+                .isInstanceOf(RuntimeException.class);
+        // Numbering also runs after each commit and on an interval; this makes sure it has run
+        accountChangeLog.sequence();
+
+        AccountChangeFeed feed = accountService.getChanges(start, null, 0L).get().orElseThrow();
+        assertThat(feed.getChanges())
+                .extracting(AccountChange::getAccountNumber, AccountChange::getChangeType)
+                .containsExactly(tuple("LOG-000001", "CREATED"), tuple("LOG-000002", "CREATED"),
+                        tuple("LOG-000001", "UPDATED"), tuple("LOG-000002", "UPDATED"),
+                        tuple("LOG-000001", "UPDATED"), tuple("LOG-000002", "UPDATED"),
+                        tuple("LOG-000002", "DELETED"));
+        assertThat(feed.getChanges()).extracting(AccountChange::getSequence).isSorted();
+        assertThat(feed.getNextSequence()).isEqualTo(accountService.getLastChangeSequence());
+
+        // Pages resume where the last one ended
+        AccountChangeFeed first = accountService.getChanges(start, 2, 0L).get().orElseThrow();
+        AccountChangeFeed rest = accountService.getChanges(first.getNextSequence(), null, 0L).get().orElseThrow();
+        assertThat(first.getChanges()).hasSize(2);
+        assertThat(rest.getChanges()).hasSize(5);
+
+        // A caught-up reader waits for the next commit; one that timed out gets an empty page
+        CompletableFuture<Optional<AccountChangeFeed>> waiting =
+                accountService.getChanges(feed.getNextSequence(), null, 10_000L);
+        assertThat(waiting).isNotDone();
+        accountService.updateAccountBalance("LOG-000001", "5.00");
+        assertThat(waiting.get(5, TimeUnit.SECONDS).orElseThrow().getChanges())
+                .extracting(AccountChange::getAccountNumber).containsExactly("LOG-000001");
+        long now = accountService.getLastChangeSequence();
+        assertThat(accountService.getChanges(now, null, 50L).get().orElseThrow().getChanges()).isEmpty();
+
+        // A change committed elsewhere, as by another node, is numbered by the next sequencer run
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> changeRepository.save(
+                new AccountChange(null, "LOG-000001", "UPDATED", Account.now())));
+        assertThat(accountChangeLog.sequence()).isEqualTo(now + 1);
+        assertThat(accountService.getChanges(now, null, 0L).get().orElseThrow().getChanges())
+                .extracting(AccountChange::getAccountNumber).containsExactly("LOG-000001");
+        now = accountService.getLastChangeSequence();
+
+        // A reader ahead of the log has lost its place
+        assertThat(accountService.getChanges(now + 1, null, 0L).get()).isEmpty();
+        assertThatThrownBy(() -> accountService.getChanges(-1, null, 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Compaction keeps only the latest change of each account
+        assertThat(accountChangeLog.compact()).isPositive();
+        assertThat(accountService.getChanges(start, null, 0L).get().orElseThrow().getChanges())
+                .extracting(AccountChange::getAccountNumber, AccountChange::getChangeType)
+                .containsExactly(tuple("LOG-000002", "DELETED"), tuple("LOG-000001", "UPDATED"));
+    }
+
+    @Test
+    void concurrentCreditsToOneAccountAllLand() throws Exception {
+        accountService.createAccount(account("LOG-000003"));
+        long start = accountChangeLog.sequence();
+        int credits = 25;
+        // Both threads credit at the same moment, every round, so one of them loses each race
+        CyclicBarrier round = new CyclicBarrier(2);
+        Callable<Void> crediting = () -> {
+            for (int i = 0; i < credits; i++) {
+                round.await(10, TimeUnit.SECONDS);
+                accountService.creditAccount("LOG-000003", 100);
+            }
+            return null;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Void>> threads = List.of(executor.submit(crediting), executor.submit(crediting));
+            // A lost race is retried, not surfaced, even though the change is logged in the same transaction
+            for (Future<Void> thread : threads) {
+                thread.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(accountService.getAccountByNumber("LOG-000003")).get()
+                .extracting(Account::getAccountBalance).isEqualTo("51.00");
+        // Only the attempts that committed are logged
+        accountChangeLog.sequence();
+        assertThat(accountService.getChanges(start, null, 0L).get().orElseThrow().getChanges())
+                .filteredOn(change -> change.getAccountNumber().equals("LOG-000003"))
+                .hasSize(2 * credits);
+    }
+
+    private static Account account(String accountNumber) {
+        return new Account(accountNumber, "SAVINGS", "ACTIVE", "1.00", "USD", null, null, null, "LOG_BRANCH",
+                "CUST-LOG", "Log Customer", null, null, null, null, null, null);
+    }
+}
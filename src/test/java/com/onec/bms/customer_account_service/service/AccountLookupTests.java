@@ -0,0 +1,55 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.AccountTestData;
+import com.onec.bms.customer_account_service.model.AccountLookupItem;
+import com.onec.bms.customer_account_service.model.AccountLookupResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lookup-test",
+        "accounts.lookup.chunk-size=10"
+})
+class AccountLookupTests {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lookupKeepsRequestOrderAndReportsMisses() {
+        AccountTestData.seed(jdbcTemplate, 50);
+        // One account is cached beforehand, so it is answered without a query
+        accountService.getAccountByNumber("SEED-00000007");
+
+        // Enough numbers for several chunks, out of order, with a duplicate and misses in between
+        List<String> accountNumbers = new ArrayList<>();
+        for (int key = 45; key >= 1; key -= 2) {
+            accountNumbers.add(String.format("SEED-%08d", key));
+        }
+        accountNumbers.add(3, "SEED-99999999");
+        accountNumbers.add("SEED-00000045");
+        accountNumbers.add("NOPE-1");
+
+        AccountLookupResult result = accountService.lookupAccounts(accountNumbers);
+
+        assertThat(result.getItems()).extracting(AccountLookupItem::getAccountNumber)
+                .containsExactlyElementsOf(accountNumbers);
+        assertThat(result.getFound()).isEqualTo(24);
+        assertThat(result.getMissing()).containsExactly("SEED-99999999", "NOPE-1");
+        assertThat(result.getItems()).allSatisfy(item -> assertThat(item.getAccount() == null)
+                .isEqualTo(AccountLookupItem.NOT_FOUND.equals(item.getStatus())));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> accountService.lookupAccounts(List.of("")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AccountNumberAllocatorTests {
+
+    private static final int THREADS = 16;
+    private static final int CREATES_PER_THREAD = 150;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void concurrentCreatesGetDistinctAccountNumbers() throws Exception {
+        long before = accountRepository.count();
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CREATES_PER_THREAD; i++) {
+                        numbers.add(accountService.createAccount(newAccount()).getAccountNumber());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(numbers).hasSize(THREADS * CREATES_PER_THREAD);
+        assertThat(accountRepository.count()).isEqualTo(before + THREADS * CREATES_PER_THREAD);
+    }
+
+    @Test
+    void formatGrowsPastSixDigits() {
+        assertThat(AccountNumberAllocator.format(42)).isEqualTo("ACC-000042");
+        assertThat(AccountNumberAllocator.format(1_234_567)).isEqualTo("ACC-1234567");
+    }
+
+    private static Account newAccount() {
+        Account account = new Account();
+        account.setAccountType("SAVINGS");
+        account.setAccountBalance("10.00");
+        account.setAccountCustomerId("CUST-CONC");
+        account.setAccountCustomerName("Concurrent Customer");
+        return account;
+    }
+}
@@ -0,0 +1,146 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.config.CacheConfig;
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Concurrent identical reads share one query. Each query is slowed down so every caller
+ * arrives while the first one is still running.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:read-coalescing")
+class AccountReadCoalescingTests {
+
+    private static final int CALLERS = 16;
+    private static final long QUERY_MILLIS = 500;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoSpyBean
+    private AccountRepository accountRepository;
+
+    @Test
+    void concurrentCustomerLookupsRunOneQuery() throws Exception {
+        accountService.createAccount(account("COALESCE-000001", "CUST-COALESCE"));
+        accountService.createAccount(account("COALESCE-000002", "CUST-COALESCE"));
+        doAnswer(slowly()).when(accountRepository).findByAccountCustomerId("CUST-COALESCE");
+
+        List<List<Account>> results = concurrently(() -> accountService.getAccountsByCustomerId("CUST-COALESCE"));
+
+        verify(accountRepository, times(1)).findByAccountCustomerId("CUST-COALESCE");
+        assertThat(results).hasSize(CALLERS).allSatisfy(accounts -> assertThat(accounts)
+                .extracting(Account::getAccountNumber)
+                .containsExactlyInAnyOrder("COALESCE-000001", "COALESCE-000002"));
+
+        // Once the query is done, the next lookup runs its own
+        accountService.getAccountsByCustomerId("CUST-COALESCE");
+        verify(accountRepository, times(2)).findByAccountCustomerId("CUST-COALESCE");
+    }
+
+    @Test
+    void concurrentCacheMissesRunOneQuery() throws Exception {
+        accountService.createAccount(account("COALESCE-000003", "CUST-COALESCE-MISS"));
+        cacheManager.getCache(CacheConfig.ACCOUNTS_CACHE).evict("COALESCE-000003");
+        doAnswer(slowly()).when(accountRepository).findByAccountNumber("COALESCE-000003");
+
+        List<Optional<Account>> results = concurrently(() -> accountService.getAccountByNumber("COALESCE-000003"));
+
+        verify(accountRepository, times(1)).findByAccountNumber("COALESCE-000003");
+        assertThat(results).hasSize(CALLERS).allSatisfy(account -> assertThat(account).get()
+                .extracting(Account::getAccountCustomerId).isEqualTo("CUST-COALESCE-MISS"));
+    }
+
+    @Test
+    void everyCallerGetsTheFailureOfTheSharedQuery() throws Exception {
+        doAnswer(invocation -> {
+            Thread.sleep(QUERY_MILLIS);
+            throw new DataAccessResourceFailureException("store unavailable");
+        }).when(accountRepository).findByAccountCustomerId("CUST-COALESCE-FAIL");
+
+        List<Object> results = concurrently(() -> {
+            try {
+                return accountService.getAccountsByCustomerId("CUST-COALESCE-FAIL");
+            } catch (DataAccessResourceFailureException e) {
+                return e;
+            }
+        });
+
+        verify(accountRepository, times(1)).findByAccountCustomerId("CUST-COALESCE-FAIL");
+        assertThat(results).hasSize(CALLERS).allSatisfy(result -> assertThat(result)
+                .isInstanceOf(DataAccessResourceFailureException.class)
+                .hasFieldOrPropertyWithValue("message", "store unavailable"));
+        assertThatThrownBy(() -> accountService.getAccountsByCustomerId("CUST-COALESCE-FAIL"))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        verify(accountRepository, times(2)).findByAccountCustomerId("CUST-COALESCE-FAIL");
+    }
+
+    /**
+     * Run the repository query after a delay. The spy delegates to the repository through its
+     * default answer; there is no real method to call on a repository interface.
+     */
+    private Answer<Object> slowly() {
+        Answer<?> repository = mockingDetails(accountRepository).getMockCreationSettings().getDefaultAnswer();
+        return invocation -> {
+            Thread.sleep(QUERY_MILLIS);
+            return repository.answer(invocation);
+        };
+    }
+
+    /**
+     * Start every caller at once and collect their results
+     */
+    private static <T> List<T> concurrently(Callable<T> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Account account(String accountNumber, String customerId) {
+        return new Account(accountNumber, "SAVINGS", "ACTIVE", "10.00", "USD", null, null,
+                null, "MAIN_BRANCH", customerId, "Coalescing Test", null, null, null, null, null, null);
+    }
+}
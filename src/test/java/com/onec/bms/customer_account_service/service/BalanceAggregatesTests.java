@@ -0,0 +1,175 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.BalanceAggregate;
+import com.onec.bms.customer_account_service.model.Balances;
+import com.onec.bms.customer_account_service.model.BulkStatusChange;
+import com.onec.bms.customer_account_service.model.BulkStatusResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class BalanceAggregatesTests {
+
+    private static final String BRANCH = "AGGREGATE_BRANCH";
+    private static final String BULK_BRANCH = "BULK_BRANCH";
+    private static final String RECONCILE_BRANCH = "RECONCILE_BRANCH";
+    private static final int WRITERS = 4;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BalanceAggregates balanceAggregates;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void aggregatesFollowEveryKindOfChange() {
+        accountService.createAccount(account("AGG-000001", "SAVINGS", "10.00"));
+        accountService.createAccount(account("AGG-000002", "CHECKING", "5.50"));
+        assertThat(branchTotals()).extracting(BalanceAggregate::getAccountCount, BalanceAggregate::getTotalBalance)
+                .containsExactly(tuple(2L, "15.50"));
+        assertThat(balanceAggregates.reconcile()).isZero();
+
+        // Moving the only account out of a group drops the group at once, without waiting for a reconcile
+        accountService.updateAccountStatus("AGG-000001", "SUSPENDED");
+        assertThat(branchTotals(List.of("branch", "type", "status")))
+                .extracting(BalanceAggregate::getAccountType, BalanceAggregate::getAccountStatus,
+                        BalanceAggregate::getAccountCount)
+                .containsExactly(tuple("CHECKING", "ACTIVE", 1L), tuple("SAVINGS", "SUSPENDED", 1L));
+
+        accountService.updateAccountBalance("AGG-000002", "7.00");
+        accountService.creditAccount("AGG-000001", 250);
+        accountService.addToBalance("AGG-000002", -100);
+        accountService.updateAccount("AGG-000002", account("AGG-000002", "SAVINGS", "6.00"));
+        assertThat(balanceAggregates.reconcile()).isZero();
+        assertThat(branchTotals()).extracting(BalanceAggregate::getAccountCount, BalanceAggregate::getTotalBalance)
+                .containsExactly(tuple(2L, "18.50"));
+
+        accountService.deleteAccount("AGG-000001");
+        accountService.deleteAccount("AGG-000002");
+        assertThat(branchTotals(List.of("branch", "type", "status"))).isEmpty();
+        assertThat(branchTotals()).isEmpty();
+        assertThat(balanceAggregates.reconcile()).isZero();
+    }
+
+    @Test
+    void bulkStatusChangesMoveAccountsBetweenStatusGroups() {
+        for (int i = 1; i <= 5; i++) {
+            accountService.createAccount(account("BULK-00000" + i, BULK_BRANCH, "CUST-BULK-" + i % 2, "1.00"));
+        }
+        // Cache one of them so the change has to evict it
+        assertThat(accountService.getAccountByNumber("BULK-000001")).map(Account::getAccountStatus).contains("ACTIVE");
+
+        BulkStatusResult suspended = accountService.changeStatus(
+                new BulkStatusChange("SUSPENDED", BULK_BRANCH, null, null));
+        assertThat(suspended.getUpdated()).isEqualTo(5);
+        assertThat(accountService.getAccountByNumber("BULK-000001")).map(Account::getAccountStatus).contains("SUSPENDED");
+
+        BulkStatusResult reactivated = accountService.changeStatus(new BulkStatusChange("ACTIVE", null, null,
+                List.of("BULK-000001", "BULK-000002", "BULK-000002", "BULK-MISSING")));
+        assertThat(reactivated.getUpdated()).isEqualTo(2);
+        assertThat(reactivated.getNotUpdated()).containsExactly("BULK-MISSING");
+
+        // CUST-BULK-1 holds accounts 1, 3 and 5
+        BulkStatusResult closed = accountService.changeStatus(
+                new BulkStatusChange(AccountService.CLOSED, null, "CUST-BULK-1", null));
+        assertThat(closed.getUpdated()).isEqualTo(3);
+        assertThat(accountService.getAccountByNumber("BULK-000003")).map(Account::getAccountClosingDate)
+                .contains(LocalDate.now().toString());
+        assertThat(accountService.changeStatus(new BulkStatusChange(AccountService.CLOSED, null, "CUST-BULK-1", null))
+                .getUpdated()).isZero();
+
+        assertThat(balanceAggregates.reconcile()).isZero();
+        assertThat(accountService.getBalanceAggregates(List.of("branch", "status")).stream()
+                .filter(aggregate -> BULK_BRANCH.equals(aggregate.getAccountBranch())))
+                .extracting(BalanceAggregate::getAccountStatus, BalanceAggregate::getAccountCount)
+                .containsExactly(tuple("ACTIVE", 1L), tuple(AccountService.CLOSED, 3L), tuple("SUSPENDED", 1L));
+    }
+
+    @Test
+    void reconcilingDuringWritesRepairsDriftWithoutMiscountingTheWrites() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        List<Future<Integer>> writers = new ArrayList<>();
+        try {
+            for (int w = 0; w < WRITERS; w++) {
+                String prefix = "RECON-" + w + "-";
+                writers.add(executor.submit(() -> {
+                    int written = 0;
+                    while (writing.get()) {
+                        String accountNumber = prefix + written;
+                        accountService.createAccount(account(accountNumber, RECONCILE_BRANCH, "CUST-RECON", "1.00"));
+                        accountService.creditAccount(accountNumber, 50);
+                        accountService.addToBalance(accountNumber, -25);
+                        if (written % 2 == 0) {
+                            accountService.deleteAccount(accountNumber);
+                        }
+                        written++;
+                    }
+                    return written;
+                }));
+            }
+
+            // A change the totals took in but the table never saw
+            eventPublisher.publishEvent(AccountChangedEvent.updatedInPlace("RECON-GHOST", null,
+                    new BalancePosition(RECONCILE_BRANCH, "EUR", "SAVINGS", "ACTIVE", 100)));
+            // Repaired even though writes keep committing, and the writes themselves are never counted as drift
+            assertThat(balanceAggregates.reconcile()).isEqualTo(1);
+            for (int i = 0; i < 20; i++) {
+                assertThat(balanceAggregates.reconcile()).isZero();
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdown();
+        }
+
+        // Every other account is deleted, the rest hold 1.00 + 0.50 - 0.25
+        long kept = 0;
+        for (Future<Integer> writer : writers) {
+            kept += writer.get(30, TimeUnit.SECONDS) / 2;
+        }
+        assertThat(balanceAggregates.reconcile()).isZero();
+        assertThat(accountService.getBalanceAggregates(List.of("branch")).stream()
+                .filter(aggregate -> RECONCILE_BRANCH.equals(aggregate.getAccountBranch())))
+                .extracting(BalanceAggregate::getAccountCurrency, BalanceAggregate::getAccountCount,
+                        BalanceAggregate::getTotalBalance)
+                .containsExactly(tuple("USD", kept, Balances.format(kept * 125)));
+    }
+
+    private List<BalanceAggregate> branchTotals() {
+        return branchTotals(List.of("branch"));
+    }
+
+    private List<BalanceAggregate> branchTotals(List<String> dimensions) {
+        return accountService.getBalanceAggregates(dimensions).stream()
+                .filter(aggregate -> BRANCH.equals(aggregate.getAccountBranch()))
+                .toList();
+    }
+
+    private static Account account(String accountNumber, String type, String balance) {
+        return new Account(accountNumber, type, "ACTIVE", balance, "USD", null, null, null, BRANCH,
+                "CUST-AGG", "Aggregate Customer", null, null, null, null, null, null);
+    }
+
+    private static Account account(String accountNumber, String branch, String customerId, String balance) {
+        return new Account(accountNumber, "SAVINGS", "ACTIVE", balance, "USD", null, null, null, branch,
+                customerId, "Bulk Customer", null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,173 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.Account;
+import com.onec.bms.customer_account_service.model.BalanceDeltaFailure;
+import com.onec.bms.customer_account_service.repository.AccountRepository;
+import com.onec.bms.customer_account_service.repository.BalanceDeltaFailureRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Flushes of coalesced balance deltas. The scheduled flush is pushed out of the way,
+ * so every flush here is an explicit call.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:delta-coalescing",
+        "accounts.balance.coalescing.enabled=true",
+        "accounts.balance.coalescing.flush-interval-ms=3600000",
+        "accounts.balance.coalescing.max-flush-attempts=3"
+})
+class BalanceDeltaCoalescerTests {
+
+    private static final int THREADS = 4;
+    private static final int DELTAS_PER_THREAD = 25;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BalanceDeltaCoalescer balanceDeltaCoalescer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoSpyBean
+    private AccountRepository accountRepository;
+
+    @MockitoSpyBean
+    private BalanceDeltaFailureRepository failureRepository;
+
+    @Test
+    void flushAppliesOneUpdatePerAccount() throws Exception {
+        accountService.createAccount(account("DELTA-000001"));
+        accountService.createAccount(account("DELTA-000002"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < DELTAS_PER_THREAD; i++) {
+                        balanceDeltaCoalescer.add("DELTA-000001", 100);
+                        balanceDeltaCoalescer.add("DELTA-000002", 250);
+                        balanceDeltaCoalescer.add("DELTA-000002", -250);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        balanceDeltaCoalescer.add("DELTA-MISSING", 100);
+
+        // Deltas that cancel out are not written; one for a missing account is stored as failed
+        assertThat(balanceDeltaCoalescer.flush()).isEqualTo(1);
+        verify(accountRepository, times(1)).addToBalance(eq("DELTA-000001"), eq(10_000L), any());
+        verify(accountRepository, never()).addToBalance(eq("DELTA-000002"), anyLong(), any());
+        assertThat(balance("DELTA-000001")).isEqualTo("110.00");
+        assertThat(balance("DELTA-000002")).isEqualTo("10.00");
+
+        // Everything was drained
+        assertThat(balanceDeltaCoalescer.flush()).isZero();
+        verify(accountRepository, times(1)).addToBalance(eq("DELTA-000001"), anyLong(), any());
+        verify(accountRepository, times(1)).addToBalance(eq("DELTA-MISSING"), anyLong(), any());
+        assertThat(failures("DELTA-MISSING")).singleElement().satisfies(failure -> {
+            assertThat(failure.getAmount()).isEqualTo("1.00");
+            assertThat(failure.getReason()).isEqualTo("Account not found");
+        });
+    }
+
+    @Test
+    void failedDeltasAreRetriedAndThenStored() {
+        accountService.createAccount(account("DELTA-000003"));
+        doThrow(new DataAccessResourceFailureException("store unavailable"))
+                .when(accountRepository).addToBalance(eq("DELTA-000003"), anyLong(), any());
+
+        // Two failed flushes keep the delta, and deltas added meanwhile join it
+        balanceDeltaCoalescer.add("DELTA-000003", 100);
+        assertThat(balanceDeltaCoalescer.flush()).isZero();
+        balanceDeltaCoalescer.add("DELTA-000003", 50);
+        assertThat(balanceDeltaCoalescer.flush()).isZero();
+        verify(accountRepository, times(1)).addToBalance(eq("DELTA-000003"), eq(100L), any());
+        verify(accountRepository, times(1)).addToBalance(eq("DELTA-000003"), eq(150L), any());
+
+        // Once the store is back the whole delta lands, and the failure count starts over
+        doAnswer(mockingDetails(accountRepository).getMockCreationSettings().getDefaultAnswer())
+                .when(accountRepository).addToBalance(eq("DELTA-000003"), anyLong(), any());
+        assertThat(balanceDeltaCoalescer.flush()).isEqualTo(1);
+        assertThat(balance("DELTA-000003")).isEqualTo("11.50");
+
+        assertThat(failures("DELTA-000003")).isEmpty();
+
+        // After three failed flushes in a row it is stored as failed, and kept queued while that fails too
+        doThrow(new DataAccessResourceFailureException("store unavailable"))
+                .when(accountRepository).addToBalance(eq("DELTA-000003"), anyLong(), any());
+        doThrow(new DataAccessResourceFailureException("store unavailable"))
+                .doAnswer(mockingDetails(failureRepository).getMockCreationSettings().getDefaultAnswer())
+                .when(failureRepository).save(any());
+        double counted = failedCount();
+        balanceDeltaCoalescer.add("DELTA-000003", -7);
+        for (int flush = 0; flush < 3; flush++) {
+            assertThat(balanceDeltaCoalescer.flush()).isZero();
+        }
+        assertThat(failures("DELTA-000003")).isEmpty();
+        assertThat(failedCount()).isEqualTo(counted);
+        assertThat(balanceDeltaCoalescer.flush()).isZero();
+        verify(accountRepository, times(4)).addToBalance(eq("DELTA-000003"), eq(-7L), any());
+        assertThat(failures("DELTA-000003")).singleElement().satisfies(failure -> {
+            assertThat(failure.getAmount()).isEqualTo("-0.07");
+            assertThat(failure.getReason()).startsWith("Failed 4 times: store unavailable");
+        });
+        assertThat(failedCount()).isEqualTo(counted + 1);
+
+        // Nothing is left queued
+        assertThat(balanceDeltaCoalescer.flush()).isZero();
+        verify(accountRepository, times(4)).addToBalance(eq("DELTA-000003"), eq(-7L), any());
+        assertThat(balance("DELTA-000003")).isEqualTo("11.50");
+    }
+
+    private List<BalanceDeltaFailure> failures(String accountNumber) {
+        return accountService.getFailedBalanceDeltas(null).stream()
+                .filter(failure -> failure.getAccountNumber().equals(accountNumber))
+                .toList();
+    }
+
+    private double failedCount() {
+        Counter counter = meterRegistry.find(BalanceDeltaCoalescer.FAILED_METRIC).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private String balance(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getAccountBalance();
+    }
+
+    private static Account account(String accountNumber) {
+        return new Account(accountNumber, "SAVINGS", "ACTIVE", "10.00", "USD", null, null,
+                null, "MAIN_BRANCH", "CUST-DELTA", "Delta Test", null, null, null, null, null, null);
+    }
+}
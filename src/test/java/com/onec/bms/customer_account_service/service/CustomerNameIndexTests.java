@@ -0,0 +1,93 @@
+package com.onec.bms.customer_account_service.service;
+
+import com.onec.bms.customer_account_service.model.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * The trigram index on its own, without the database it is normally loaded from
+ */
+class CustomerNameIndexTests {
+
+    private final CustomerNameIndex index = new CustomerNameIndex();
+
+    @Test
+    void namesStartingWithTheQueryRankFirstThenWordStartsThenOtherMatches() {
+        index.put("ACC-6", "ann maria tessaro");
+        index.put("ACC-5", "ann contessa");
+        index.put("ACC-4", "tess ward");
+        index.put("ACC-3", "tessa lind");
+        index.put("ACC-2", "tessa king");
+        index.put("ACC-1", "mary tessaly");
+        index.put("ACC-0", "john smith");
+
+        // Within a rank the shorter name wins, then the lower account number
+        assertThat(index.search("tess", 10))
+                .containsExactly("ACC-4", "ACC-2", "ACC-3", "ACC-1", "ACC-6", "ACC-5");
+        assertThat(index.search("tess", 3)).containsExactly("ACC-4", "ACC-2", "ACC-3");
+        assertThat(index.search("essa", 10)).containsExactly("ACC-2", "ACC-3", "ACC-1", "ACC-5", "ACC-6");
+        assertThat(index.search("xyz", 10)).isEmpty();
+        // The query is matched as one run, not word by word
+        assertThat(index.search("ann maria", 10)).containsExactly("ACC-6");
+        assertThat(index.search("maria ann", 10)).isEmpty();
+    }
+
+    @Test
+    void queriesShorterThanATrigramAreRefused() {
+        index.put("ACC-1", "ann lee");
+
+        assertThatIllegalArgumentException().isThrownBy(() -> index.search("an", 10));
+    }
+
+    @Test
+    void putRemoveAndUpdateFollowAccountChanges() {
+        index.onAccountChanged(AccountChangedEvent.created(account("ACC-1", "José GARCÍA")));
+        index.onAccountChanged(AccountChangedEvent.created(account("ACC-2", "Maria Garcia")));
+        assertThat(index.search("garcia", 10)).containsExactly("ACC-1", "ACC-2");
+        assertThat(index.size()).isEqualTo(2);
+
+        // A rename replaces the old name
+        index.onAccountChanged(AccountChangedEvent.updated(account("ACC-1", "José Pérez"), null));
+        assertThat(index.search("garcia", 10)).containsExactly("ACC-2");
+        assertThat(index.search("perez", 10)).containsExactly("ACC-1");
+        assertThat(index.size()).isEqualTo(2);
+
+        // A change made in place carries no account and leaves the name alone
+        index.onAccountChanged(AccountChangedEvent.updatedInPlace("ACC-1", null, null));
+        assertThat(index.search("perez", 10)).containsExactly("ACC-1");
+
+        index.onAccountChanged(AccountChangedEvent.deleted("ACC-2", null));
+        assertThat(index.search("garcia", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+        index.remove("ACC-MISSING");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void compactionDropsReplacedNamesAndKeepsAnswersTheSame() {
+        for (int i = 0; i < 10; i++) {
+            index.put("ACC-" + i, "customer " + i);
+        }
+        // Every rename leaves a stale entry behind, until stale entries outweigh the live ones
+        for (int i = 0; i < 2_000; i++) {
+            index.put("ACC-0", i % 2 == 0 ? "renamed even" : "renamed odd");
+        }
+
+        assertThat(index.size()).isEqualTo(10);
+        assertThat((List<?>) ReflectionTestUtils.getField(index, "names")).hasSizeLessThan(1_024);
+        assertThat(index.search("renamed", 10)).containsExactly("ACC-0");
+        assertThat(index.search("even", 10)).isEmpty();
+        assertThat(index.search("odd", 10)).containsExactly("ACC-0");
+        assertThat(index.search("customer", 20)).hasSize(9).doesNotContain("ACC-0");
+    }
+
+    private static Account account(String accountNumber, String customerName) {
+        return new Account(accountNumber, "SAVINGS", "ACTIVE", "10.00", "USD", null, null,
+                null, "MAIN_BRANCH", "CUST-INDEX", customerName, null, null, null, null, null, null);
+    }
+}